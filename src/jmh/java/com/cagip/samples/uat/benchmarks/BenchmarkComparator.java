@@ -0,0 +1,89 @@
+package com.cagip.samples.uat.benchmarks;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and fails when a benchmark got slower
+ * than the allowed threshold.
+ * <p>
+ * Usage: {@code BenchmarkComparator <baseline.json> <current.json> [threshold-percent]}
+ * (default threshold 10%). Time-per-operation modes regress when the score grows,
+ * throughput mode when it shrinks. Benchmarks missing from the baseline are reported
+ * as new. Exits with status 1 if any benchmark regressed.
+ */
+public class BenchmarkComparator {
+    
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BenchmarkComparator <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+        
+        int regressions = 0;
+        System.out.println(String.format("%-70s %12s %12s %9s", "Benchmark", "Baseline", "Current", "Change"));
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println(String.format("%-70s %12s %12.3f %9s  new", entry.getKey(), "-", now.score, ""));
+                continue;
+            }
+            double change = (now.score - before.score) / before.score * 100;
+            boolean regressed = now.isThroughput() ? change < -threshold : change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.println(String.format("%-70s %12.3f %12.3f %+8.1f%%%s",
+                entry.getKey(), before.score, now.score, change, regressed ? "  REGRESSION" : ""));
+        }
+        
+        System.out.println(regressions + " regression(s) above " + threshold + "% (units: " 
+            + current.values().stream().map(result -> result.unit).distinct().toList() + ")");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Reads a JMH JSON result file, keyed by benchmark name and mode.
+     * 
+     * @param file Result file written with {@code -rf json}
+     * @return Scores by benchmark
+     * @throws IOException if the file cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            List<Map<String, Object>> runs = new Json().toType(reader, List.class);
+            for (Map<String, Object> run : runs) {
+                Map<String, Object> metric = (Map<String, Object>) run.get("primaryMetric");
+                String mode = (String) run.get("mode");
+                String name = run.get("benchmark") + " [" + mode + "]";
+                results.put(name, new Result(mode, ((Number) metric.get("score")).doubleValue(),
+                    (String) metric.get("scoreUnit")));
+            }
+        }
+        return results;
+    }
+    
+    private record Result(String mode, double score, String unit) {
+        
+        boolean isThroughput() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
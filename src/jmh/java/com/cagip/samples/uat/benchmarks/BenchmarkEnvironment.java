@@ -0,0 +1,45 @@
+package com.cagip.samples.uat.benchmarks;
+
+import com.cagip.samples.uat.stub.LoginAppStub;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Local environment shared by the benchmarks of one forked JVM: a headless
+ * browser profile and the in-JVM login app stub on a free port, so results do
+ * not depend on the network or on a remote application.
+ */
+final class BenchmarkEnvironment {
+    
+    private static LoginAppStub stub;
+    
+    private BenchmarkEnvironment() {
+    }
+    
+    /**
+     * Starts the login app stub once and points {@code login.page.url} at it.
+     * Must run before any page object class is loaded.
+     */
+    static synchronized void start() {
+        if (stub != null) {
+            return;
+        }
+        if (System.getProperty("browser.profile") == null) {
+            System.setProperty("browser.profile", "fast-ci");
+        }
+        try {
+            stub = LoginAppStub.start(0, 0, 0, 42);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the login app stub", e);
+        }
+        System.setProperty("login.page.url", stub.getLoginPageUrl());
+    }
+    
+    static synchronized void stop() {
+        if (stub != null) {
+            stub.stop();
+            stub = null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.cagip.samples.uat.benchmarks;
+
+import com.cagip.samples.uat.driver.DriverFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DriverFactory} creation paths. Each invocation takes seconds, so these
+ * run in single-shot mode. Session reuse is read once per JVM and gets its own fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+public class DriverBenchmarks {
+    
+    @Setup
+    public void setUp() {
+        BenchmarkEnvironment.start();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        DriverFactory.quitDriver();
+        BenchmarkEnvironment.stop();
+    }
+    
+    /**
+     * Browser startup and shutdown with no reuse.
+     */
+    @Benchmark
+    public WebDriver coldStart() {
+        WebDriver driver = DriverFactory.getDriver();
+        DriverFactory.quitDriver();
+        return driver;
+    }
+    
+    /**
+     * Handing a session back and taking it again, which includes the
+     * browser state reset between scenarios.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Ddriver.reuse.enabled=true")
+    public WebDriver reuse() {
+        WebDriver driver = DriverFactory.getDriver();
+        DriverFactory.releaseDriver(false);
+        return driver;
+    }
+}
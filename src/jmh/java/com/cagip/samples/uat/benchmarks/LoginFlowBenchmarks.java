@@ -0,0 +1,74 @@
+package com.cagip.samples.uat.benchmarks;
+
+import com.cagip.samples.uat.driver.DriverFactory;
+import com.cagip.samples.uat.pages.LoginOutcome;
+import com.cagip.samples.uat.pages.LoginPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full {@link LoginPage#login(String, String)} flows, from navigation to the
+ * detected outcome, in keystroke and batched interaction modes. The mode is
+ * read once per JVM, so each variant runs in its own fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoginFlowBenchmarks {
+    
+    private WebDriver driver;
+    
+    @Setup
+    public void setUp() {
+        BenchmarkEnvironment.start();
+        driver = DriverFactory.getDriver();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        DriverFactory.quitDriver();
+        BenchmarkEnvironment.stop();
+    }
+    
+    @Benchmark
+    public LoginOutcome loginKeystrokes() {
+        return login("student", "Password123");
+    }
+    
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dinteraction.mode=batched")
+    public LoginOutcome loginBatched() {
+        return login("student", "Password123");
+    }
+    
+    @Benchmark
+    public LoginOutcome invalidLoginKeystrokes() {
+        return login("student", "incorrectPassword");
+    }
+    
+    private LoginOutcome login(String username, String password) {
+        LoginPage loginPage = new LoginPage(driver);
+        loginPage.navigateToLoginPage();
+        loginPage.login(username, password);
+        LoginOutcome outcome = loginPage.waitForLoginOutcome();
+        if (outcome == null) {
+            throw new IllegalStateException("Login outcome not detected");
+        }
+        return outcome;
+    }
+}
@@ -0,0 +1,96 @@
+package com.cagip.samples.uat.benchmarks;
+
+import com.cagip.samples.uat.driver.DriverFactory;
+import com.cagip.samples.uat.pages.LoginOutcome;
+import com.cagip.samples.uat.pages.LoginPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page object hot paths against a local headless browser: page construction,
+ * single interactions and wait helpers. The page is left on the login form
+ * with the error banner shown, which every benchmark keeps true.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PageBenchmarks {
+    
+    private WebDriver driver;
+    private LoginPage loginPage;
+    
+    @Setup
+    public void setUp() {
+        BenchmarkEnvironment.start();
+        driver = DriverFactory.getDriver();
+        loginPage = new LoginPage(driver);
+        loginPage.navigateToLoginPage();
+        loginPage.login("benchmark", "invalid");
+        if (loginPage.waitForLoginOutcome() != LoginOutcome.ERROR) {
+            throw new IllegalStateException("Login page did not reach the error state");
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        DriverFactory.quitDriver();
+        BenchmarkEnvironment.stop();
+    }
+    
+    /**
+     * Cost of building a page object, including element proxy initialization.
+     */
+    @Benchmark
+    public LoginPage constructPage() {
+        return new LoginPage(driver);
+    }
+    
+    /**
+     * Visibility wait, clear and typing into a field.
+     */
+    @Benchmark
+    public void enterText() {
+        loginPage.enterUsername("student");
+    }
+    
+    /**
+     * Clickable wait and click on submit; the stub answers the empty form with
+     * the error page, so this includes one form round trip.
+     */
+    @Benchmark
+    public void clickElement() {
+        loginPage.clickSubmit();
+    }
+    
+    /**
+     * Outcome wait when the outcome is already on screen.
+     */
+    @Benchmark
+    public LoginOutcome waitForOutcome() {
+        return loginPage.waitForLoginOutcome();
+    }
+    
+    /**
+     * Visibility wait and text read of the error banner.
+     */
+    @Benchmark
+    public void readErrorMessage(Blackhole blackhole) {
+        blackhole.consume(loginPage.getErrorMessageText());
+    }
+}
@@ -0,0 +1,349 @@
+package com.cagip.samples.uat.driver;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Named set of browser settings shared by the local, remote and Docker creation paths.
+ * The profile is selected with {@code browser.profile}:
+ * <ul>
+ *     <li>{@code realistic} (default): headed, maximized, everything enabled, normal page load,</li>
+ *     <li>{@code fast-ci}: headless, fixed window size, images and web fonts blocked, extensions,
+ *     GPU and background networking disabled, eager page load, requests to common analytics,
+ *     ad and web font hosts blocked.</li>
+ * </ul>
+ * Individual settings can be overridden with {@code browser.headless}, {@code browser.window.size}
+ * (e.g. {@code 1366,768}), {@code browser.block.images}, {@code browser.block.fonts},
+ * {@code browser.page.load.strategy} ({@code normal}, {@code eager}, {@code none}) and
+ * {@code network.block.patterns} (comma-separated URL patterns with {@code *} wildcards,
+ * {@code none} to block nothing).
+ */
+public final class BrowserProfile {
+    
+    public static final String REALISTIC = "realistic";
+    public static final String FAST_CI = "fast-ci";
+    
+    private static final List<String> THIRD_PARTY_PATTERNS = List.of(
+        "*google-analytics.com*",
+        "*googletagmanager.com*",
+        "*doubleclick.net*",
+        "*googlesyndication.com*",
+        "*connect.facebook.net*",
+        "*fonts.googleapis.com*",
+        "*fonts.gstatic.com*"
+    );
+    
+    private final String name;
+    private final boolean headless;
+    private final String windowSize;
+    private final boolean blockImages;
+    private final boolean blockFonts;
+    private final boolean lightweight;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final List<String> blockedUrlPatterns;
+    
+    private BrowserProfile(Builder builder) {
+        this.name = builder.name;
+        this.headless = builder.headless;
+        this.windowSize = builder.windowSize;
+        this.blockImages = builder.blockImages;
+        this.blockFonts = builder.blockFonts;
+        this.lightweight = builder.lightweight;
+        this.pageLoadStrategy = builder.pageLoadStrategy;
+        this.blockedUrlPatterns = List.copyOf(builder.blockedUrlPatterns);
+    }
+    
+    /**
+     * Builds the profile selected by system properties.
+     * 
+     * @return Current browser profile
+     */
+    public static BrowserProfile current() {
+        String profileName = System.getProperty("browser.profile", REALISTIC).toLowerCase(Locale.ROOT);
+        Builder builder = switch (profileName) {
+            case REALISTIC -> builder(REALISTIC);
+            case FAST_CI -> builder(FAST_CI)
+                .headless(true)
+                .windowSize("1366,768")
+                .blockImages(true)
+                .blockFonts(true)
+                .lightweight(true)
+                .pageLoadStrategy(PageLoadStrategy.EAGER)
+                .blockedUrlPatterns(THIRD_PARTY_PATTERNS);
+            default -> throw new IllegalArgumentException("Browser profile not supported: " + profileName);
+        };
+        return builder.applySystemOverrides().build();
+    }
+    
+    /**
+     * Starts a profile from scratch: headed, maximized, nothing blocked.
+     * 
+     * @param name Profile name
+     * @return Builder
+     */
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+    
+    /**
+     * Creates Chrome options for this profile.
+     * 
+     * @return ChromeOptions
+     */
+    public ChromeOptions chromeOptions() {
+        return applyChromium(new ChromeOptions());
+    }
+    
+    /**
+     * Creates Edge options for this profile.
+     * 
+     * @return EdgeOptions
+     */
+    public EdgeOptions edgeOptions() {
+        return applyChromium(new EdgeOptions());
+    }
+    
+    /**
+     * Creates Firefox options for this profile.
+     * 
+     * @return FirefoxOptions
+     */
+    public FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
+        options.addPreference("dom.webnotifications.enabled", false);
+        if (headless) {
+            options.addArguments("-headless");
+        }
+        if (windowSize != null) {
+            String[] dimensions = windowSize.split(",");
+            options.addArguments("--width=" + dimensions[0].trim(), "--height=" + dimensions[1].trim());
+        } else {
+            options.addArguments("--start-maximized");
+        }
+        if (blockImages) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (blockFonts) {
+            options.addPreference("gfx.downloadable_fonts.enabled", false);
+        }
+        if (lightweight) {
+            options.addPreference("extensions.update.enabled", false);
+            options.addPreference("layers.acceleration.disabled", true);
+            options.addPreference("network.prefetch-next", false);
+            options.addPreference("network.dns.disablePrefetch", true);
+            options.addPreference("app.update.auto", false);
+            options.addPreference("browser.safebrowsing.malware.enabled", false);
+            options.addPreference("browser.safebrowsing.phishing.enabled", false);
+            options.addPreference("datareporting.healthreport.uploadEnabled", false);
+            options.addPreference("toolkit.telemetry.enabled", false);
+        }
+        if (!blockedUrlPatterns.isEmpty()) {
+            // Request blocking goes through WebDriver BiDi (see NetworkControl)
+            options.setCapability("webSocketUrl", true);
+        }
+        return options;
+    }
+    
+    private <T extends ChromiumOptions<?>> T applyChromium(T options) {
+        options.setPageLoadStrategy(pageLoadStrategy);
+        options.addArguments("--disable-notifications");
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+        if (windowSize != null) {
+            options.addArguments("--window-size=" + windowSize);
+        } else {
+            options.addArguments("--start-maximized");
+        }
+        if (blockImages) {
+            options.addArguments("--blink-settings=imagesEnabled=false");
+        }
+        if (blockFonts) {
+            options.addArguments("--disable-remote-fonts");
+        }
+        if (lightweight) {
+            options.addArguments(
+                "--disable-extensions",
+                "--disable-gpu",
+                "--disable-background-networking",
+                "--disable-component-update",
+                "--disable-default-apps",
+                "--disable-sync",
+                "--no-first-run"
+            );
+        }
+        return options;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public boolean isHeadless() {
+        return headless;
+    }
+    
+    /**
+     * Gets the URL patterns of requests the browser must not send.
+     * 
+     * @return Patterns with {@code *} wildcards, empty if nothing is blocked
+     */
+    public List<String> getBlockedUrlPatterns() {
+        return blockedUrlPatterns;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s (headless=%s, window=%s, blockImages=%s, blockFonts=%s, lightweight=%s, pageLoad=%s, blockedUrls=%d)",
+            name, headless, windowSize == null ? "maximized" : windowSize, blockImages, blockFonts, lightweight,
+            pageLoadStrategy, blockedUrlPatterns.size());
+    }
+    
+    /**
+     * Builder for browser profiles.
+     */
+    public static final class Builder {
+        
+        private final String name;
+        private boolean headless;
+        private String windowSize;
+        private boolean blockImages;
+        private boolean blockFonts;
+        private boolean lightweight;
+        private PageLoadStrategy pageLoadStrategy = PageLoadStrategy.NORMAL;
+        private List<String> blockedUrlPatterns = List.of();
+        
+        private Builder(String name) {
+            this.name = name;
+        }
+        
+        public Builder headless(boolean headless) {
+            this.headless = headless;
+            return this;
+        }
+        
+        /**
+         * Sets a fixed window size instead of maximizing.
+         * 
+         * @param windowSize Size as "width,height", or null to maximize
+         * @return this builder
+         */
+        public Builder windowSize(String windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+        
+        public Builder blockImages(boolean blockImages) {
+            this.blockImages = blockImages;
+            return this;
+        }
+        
+        public Builder blockFonts(boolean blockFonts) {
+            this.blockFonts = blockFonts;
+            return this;
+        }
+        
+        /**
+         * Disables extensions, GPU acceleration and background networking.
+         * 
+         * @param lightweight true to strip the browser down
+         * @return this builder
+         */
+        public Builder lightweight(boolean lightweight) {
+            this.lightweight = lightweight;
+            return this;
+        }
+        
+        public Builder pageLoadStrategy(PageLoadStrategy pageLoadStrategy) {
+            this.pageLoadStrategy = pageLoadStrategy;
+            return this;
+        }
+        
+        /**
+         * Sets the URL patterns of requests to block, such as {@code *google-analytics.com*}.
+         * 
+         * @param blockedUrlPatterns Patterns with {@code *} wildcards
+         * @return this builder
+         */
+        public Builder blockedUrlPatterns(List<String> blockedUrlPatterns) {
+            this.blockedUrlPatterns = blockedUrlPatterns;
+            return this;
+        }
+        
+        /**
+         * Applies the individual {@code browser.*} overrides on top of the preset.
+         * 
+         * @return this builder
+         */
+        Builder applySystemOverrides() {
+            String headlessOverride = System.getProperty("browser.headless");
+            if (headlessOverride != null && !headlessOverride.isBlank()) {
+                headless(Boolean.parseBoolean(headlessOverride));
+            }
+            String windowSizeOverride = System.getProperty("browser.window.size");
+            if (windowSizeOverride != null && !windowSizeOverride.isBlank()) {
+                windowSize(parseWindowSize(windowSizeOverride));
+            }
+            String blockImagesOverride = System.getProperty("browser.block.images");
+            if (blockImagesOverride != null && !blockImagesOverride.isBlank()) {
+                blockImages(Boolean.parseBoolean(blockImagesOverride));
+            }
+            String blockFontsOverride = System.getProperty("browser.block.fonts");
+            if (blockFontsOverride != null && !blockFontsOverride.isBlank()) {
+                blockFonts(Boolean.parseBoolean(blockFontsOverride));
+            }
+            String pageLoadOverride = System.getProperty("browser.page.load.strategy");
+            if (pageLoadOverride != null && !pageLoadOverride.isBlank()) {
+                PageLoadStrategy strategy = PageLoadStrategy.fromString(pageLoadOverride.trim().toLowerCase(Locale.ROOT));
+                if (strategy == null) {
+                    throw new IllegalArgumentException("Invalid browser.page.load.strategy '" + pageLoadOverride
+                        + "', expected normal, eager or none");
+                }
+                pageLoadStrategy(strategy);
+            }
+            String blockedUrlsOverride = System.getProperty("network.block.patterns");
+            if (blockedUrlsOverride != null && !blockedUrlsOverride.isBlank()) {
+                blockedUrlPatterns("none".equalsIgnoreCase(blockedUrlsOverride.trim())
+                    ? List.of()
+                    : Arrays.stream(blockedUrlsOverride.split(",")).map(String::trim).filter(p -> !p.isEmpty()).toList());
+            }
+            return this;
+        }
+        
+        /**
+         * Validates a {@code browser.window.size} value.
+         * 
+         * @param value Size as "width,height" in pixels
+         * @return Normalized size, without spaces
+         * @throws IllegalArgumentException if the value is not two positive integers
+         */
+        private static String parseWindowSize(String value) {
+            String[] dimensions = value.split(",", -1);
+            try {
+                if (dimensions.length == 2) {
+                    int width = Integer.parseInt(dimensions[0].trim());
+                    int height = Integer.parseInt(dimensions[1].trim());
+                    if (width > 0 && height > 0) {
+                        return width + "," + height;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException("Invalid browser.window.size '" + value
+                + "', expected width,height in pixels (e.g. 1366,768)");
+        }
+        
+        public BrowserProfile build() {
+            return new BrowserProfile(this);
+        }
+    }
+}
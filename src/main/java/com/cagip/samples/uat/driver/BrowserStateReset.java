@@ -0,0 +1,81 @@
+package com.cagip.samples.uat.driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Brings a live browser back to a clean state between scenarios.
+ * Much cheaper than quitting and relaunching the browser.
+ */
+final class BrowserStateReset {
+    
+    private static final String BLANK_PAGE = "about:blank";
+    
+    private static final String CLEAR_STORAGE_SCRIPT =
+        "try { window.localStorage.clear(); } catch (e) {}"
+        + "try { window.sessionStorage.clear(); } catch (e) {}";
+    
+    private BrowserStateReset() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Closes extra windows, clears cookies and web storage, then parks the
+     * browser on about:blank.
+     * Storage is cleared for the origin currently loaded, which is the one the
+     * previous scenario used.
+     * 
+     * @param driver Driver to reset
+     * @return true if the browser is healthy and was reset, false if it must be recycled
+     */
+    static boolean reset(WebDriver driver) {
+        try {
+            closeExtraWindows(driver);
+            if (driver instanceof JavascriptExecutor executor) {
+                executor.executeScript(CLEAR_STORAGE_SCRIPT);
+            }
+            driver.manage().deleteAllCookies();
+            driver.get(BLANK_PAGE);
+            return isHealthy(driver);
+        } catch (WebDriverException e) {
+            System.out.println("Browser reset failed, session will be recycled: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Checks that the browser still answers commands.
+     * 
+     * @param driver Driver to check
+     * @return true if the browser responds
+     */
+    static boolean isHealthy(WebDriver driver) {
+        try {
+            return driver.getWindowHandle() != null;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Closes every window except the first one and switches back to it.
+     * 
+     * @param driver Driver to clean up
+     */
+    private static void closeExtraWindows(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        if (handles.isEmpty()) {
+            throw new WebDriverException("Browser has no open window");
+        }
+        String mainHandle = handles.get(0);
+        for (String handle : handles.subList(1, handles.size())) {
+            driver.switchTo().window(handle);
+            driver.close();
+        }
+        driver.switchTo().window(mainHandle);
+    }
+}
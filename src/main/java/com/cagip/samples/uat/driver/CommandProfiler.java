@@ -0,0 +1,246 @@
+package com.cagip.samples.uat.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts and times every WebDriver command, by command type, scenario and
+ * page-object method. Enabled with {@code driver.profiler.enabled=true}: drivers
+ * are then wrapped in an {@link EventFiringDecorator} with this listener.
+ * <p>
+ * Per-scenario budgets fail the scenario when exceeded:
+ * {@code driver.profiler.budget.commands} (commands per scenario) and
+ * {@code driver.profiler.budget.latency.ms} (total command latency per scenario).
+ * The full profile is written as JSON to {@code driver.profiler.report}
+ * (default {@code target/cucumber-reports/webdriver-commands.json}) at JVM exit.
+ */
+public final class CommandProfiler implements WebDriverListener {
+    
+    public static final boolean ENABLED = Boolean.getBoolean("driver.profiler.enabled");
+    private static final long COMMAND_BUDGET = Long.getLong("driver.profiler.budget.commands", 0L);
+    private static final long LATENCY_BUDGET_MS = Long.getLong("driver.profiler.budget.latency.ms", 0L);
+    private static final Path REPORT_FILE = Path.of(System.getProperty("driver.profiler.report",
+        "target/cucumber-reports/webdriver-commands.json"));
+    
+    private static final String PAGES_PACKAGE = "com.cagip.samples.uat.pages.";
+    private static final String NO_SCENARIO = "(outside scenario)";
+    private static final String NO_PAGE_METHOD = "(not from a page object)";
+    // Calls that only return a local helper object and send nothing over the wire
+    private static final Set<String> LOCAL_CALLS = Set.of(
+        "manage", "navigate", "switchTo", "timeouts", "window", "logs",
+        "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals"
+    );
+    
+    private static final CommandProfiler INSTANCE = new CommandProfiler();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    
+    private final Map<String, CommandStats> byCommand = new ConcurrentHashMap<>();
+    private final Map<String, CommandStats> byScenario = new ConcurrentHashMap<>();
+    private final Map<String, CommandStats> byPageMethod = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Long>> callStarts = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<ScenarioProfile> currentScenario = new ThreadLocal<>();
+    
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::writeReport, "command-profiler-report"));
+        }
+    }
+    
+    private CommandProfiler() {
+    }
+    
+    /**
+     * Wraps a driver so every command it sends is profiled.
+     * 
+     * @param driver Driver to wrap
+     * @return Profiling driver
+     */
+    static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(INSTANCE).decorate(driver);
+    }
+    
+    /**
+     * Starts attributing commands sent from the current thread to a scenario.
+     * 
+     * @param scenarioName Scenario name
+     */
+    public static void startScenario(String scenarioName) {
+        if (ENABLED) {
+            INSTANCE.currentScenario.set(new ScenarioProfile(scenarioName));
+        }
+    }
+    
+    /**
+     * Stops attributing commands to the current scenario and checks its budgets.
+     * 
+     * @return Budget violation message, or null if within budget (or profiling is off)
+     */
+    public static String endScenario() {
+        if (!ENABLED) {
+            return null;
+        }
+        ScenarioProfile profile = INSTANCE.currentScenario.get();
+        INSTANCE.currentScenario.remove();
+        if (profile == null) {
+            return null;
+        }
+        long latencyMs = profile.latencyNanos / 1_000_000;
+        System.out.printf("WebDriver commands for '%s': %d commands, %d ms%n", profile.name, profile.commands, latencyMs);
+        if (COMMAND_BUDGET > 0 && profile.commands > COMMAND_BUDGET) {
+            return String.format("Scenario '%s' sent %d WebDriver commands, budget is %d",
+                profile.name, profile.commands, COMMAND_BUDGET);
+        }
+        if (LATENCY_BUDGET_MS > 0 && latencyMs > LATENCY_BUDGET_MS) {
+            return String.format("Scenario '%s' spent %d ms in WebDriver commands, budget is %d ms",
+                profile.name, latencyMs, LATENCY_BUDGET_MS);
+        }
+        return null;
+    }
+    
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!LOCAL_CALLS.contains(method.getName())) {
+            callStarts.get().push(System.nanoTime());
+        }
+    }
+    
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        if (!LOCAL_CALLS.contains(method.getName())) {
+            recordCall(method);
+        }
+    }
+    
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        if (!LOCAL_CALLS.contains(method.getName())) {
+            recordCall(method);
+        }
+    }
+    
+    private void recordCall(Method method) {
+        Long start = callStarts.get().poll();
+        if (start == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        String command = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        ScenarioProfile scenario = currentScenario.get();
+        
+        byCommand.computeIfAbsent(command, key -> new CommandStats()).record(elapsed);
+        byScenario.computeIfAbsent(scenario == null ? NO_SCENARIO : scenario.name, key -> new CommandStats()).record(elapsed);
+        byPageMethod.computeIfAbsent(callingPageMethod() + " -> " + command, key -> new CommandStats()).record(elapsed);
+        if (scenario != null) {
+            scenario.commands++;
+            scenario.latencyNanos += elapsed;
+        }
+    }
+    
+    /**
+     * Finds the outermost page-object method on the stack, i.e. the public
+     * page API a step called (e.g. LoginPage.login rather than BasePage.enterText).
+     * 
+     * @return "Class.method", or a placeholder when not called from a page object
+     */
+    private static String callingPageMethod() {
+        return STACK_WALKER.walk(frames -> frames
+            .filter(frame -> frame.getClassName().startsWith(PAGES_PACKAGE))
+            .reduce((inner, outer) -> outer)
+            .map(frame -> frame.getClassName().substring(PAGES_PACKAGE.length()) + "." + frame.getMethodName())
+            .orElse(NO_PAGE_METHOD));
+    }
+    
+    private void writeReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("byCommand", snapshot(byCommand));
+        report.put("byScenario", snapshot(byScenario));
+        report.put("byPageMethod", snapshot(byPageMethod));
+        try {
+            if (REPORT_FILE.getParent() != null) {
+                Files.createDirectories(REPORT_FILE.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(REPORT_FILE)) {
+                writer.write(new Json().toJson(report));
+            }
+            System.out.println("WebDriver command profile written to " + REPORT_FILE);
+        } catch (IOException e) {
+            System.out.println("Could not write WebDriver command profile: " + e.getMessage());
+        }
+    }
+    
+    private static Map<String, Object> snapshot(Map<String, CommandStats> stats) {
+        Map<String, Object> snapshot = new TreeMap<>();
+        stats.forEach((key, value) -> snapshot.put(key, value.toMap()));
+        return snapshot;
+    }
+    
+    /**
+     * Commands sent during one scenario; only touched by the scenario's thread.
+     */
+    private static final class ScenarioProfile {
+        
+        private final String name;
+        private long commands;
+        private long latencyNanos;
+        
+        ScenarioProfile(String name) {
+            this.name = name;
+        }
+    }
+    
+    /**
+     * Count, total latency and a power-of-two millisecond latency histogram.
+     */
+    private static final class CommandStats {
+        
+        // Bucket i counts latencies below 2^i ms; the last bucket is open-ended
+        private static final int BUCKETS = 14;
+        
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            long millis = nanos / 1_000_000;
+            int bucket = millis == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+            histogram.incrementAndGet(bucket);
+        }
+        
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            long commands = count.sum();
+            map.put("count", commands);
+            map.put("totalMs", totalNanos.sum() / 1_000_000);
+            map.put("meanMs", commands == 0 ? 0 : Math.round(totalNanos.sum() / 1e4 / commands) / 100.0);
+            Map<String, Object> buckets = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKETS; i++) {
+                long bucketCount = histogram.get(i);
+                if (bucketCount > 0) {
+                    buckets.put(i == BUCKETS - 1 ? ">=" + (1L << (i - 1)) + "ms" : "<" + (1L << i) + "ms", bucketCount);
+                }
+            }
+            map.put("histogram", buckets);
+            return map;
+        }
+    }
+}
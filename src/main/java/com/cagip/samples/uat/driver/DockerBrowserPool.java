@@ -0,0 +1,304 @@
+package com.cagip.samples.uat.driver;
+
+import com.cagip.samples.uat.metrics.Metrics;
+import com.cagip.samples.uat.metrics.Timer;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Browser containers for Docker-provisioned mode ({@code auto.provisioned.browser=true}).
+ * A fixed set of {@code selenium/standalone-<browser>} containers is started with the
+ * docker CLI on the first session request and kept for the whole run; sessions are
+ * handed out on the least busy container and give their slot back on quit.
+ * Containers are labelled with the host and process that started them: they are
+ * removed on JVM shutdown, and containers left behind by a process that no longer
+ * exists (killed run, crashed JVM) are removed by the next run on the same host.
+ */
+final class DockerBrowserPool {
+    
+    private static final String POOL_LABEL = "uat.docker.pool";
+    private static final String OWNER_LABEL = "uat.docker.owner";
+    private static final String HOST_ADDRESS = System.getProperty("docker.host.address", "localhost");
+    private static final String OWNER = hostName() + ":" + ProcessHandle.current().pid();
+    
+    private static final Timer CONTAINER_TIMER = Metrics.timer("docker.container.start");
+    private static final Timer SESSION_TIMER = Metrics.timer("grid.session.create");
+    
+    private static DockerBrowserPool instance;
+    
+    private final List<Container> containers = new ArrayList<>();
+    private final Map<WebDriver, Container> sessions = new IdentityHashMap<>();
+    
+    private DockerBrowserPool() {
+    }
+    
+    /**
+     * Creates a session on the least busy container, starting the containers
+     * on first use.
+     * 
+     * @param browser Browser type (chrome, firefox, edge)
+     * @param options Requested browser options
+     * @param poolSize Maximum number of sessions alive at the same time
+     * @return Remote WebDriver
+     */
+    static WebDriver createSession(String browser, Capabilities options, int poolSize) {
+        DockerBrowserPool pool = get(browser, poolSize);
+        Container container = pool.reserve();
+        try {
+            WebDriver driver = GridClient.createSession(container.url, options);
+            synchronized (pool) {
+                pool.sessions.put(driver, container);
+            }
+            return driver;
+        } catch (RuntimeException e) {
+            synchronized (pool) {
+                container.sessions--;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Gives the container slot of a quit driver back.
+     * Does nothing for drivers that were not created by the pool.
+     * 
+     * @param driver Driver, possibly decorated
+     */
+    static synchronized void release(WebDriver driver) {
+        if (instance == null) {
+            return;
+        }
+        while (driver instanceof WrapsDriver wrapper && wrapper.getWrappedDriver() != driver) {
+            driver = wrapper.getWrappedDriver();
+        }
+        synchronized (instance) {
+            Container container = instance.sessions.remove(driver);
+            if (container != null) {
+                container.sessions--;
+            }
+        }
+    }
+    
+    /**
+     * Removes the containers started by this JVM and prints how long they took
+     * to start compared with the sessions created on them.
+     * Drivers should be quit first.
+     */
+    static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        for (Container container : instance.containers) {
+            removeQuietly(container.id);
+        }
+        System.out.printf(
+            "Docker browsers: %d container(s) started in avg %.0f ms (max %.0f ms), %d session(s) created in avg %.0f ms%n",
+            CONTAINER_TIMER.getCount(), CONTAINER_TIMER.getMeanNanos() / 1e6, CONTAINER_TIMER.getMaxNanos() / 1e6,
+            SESSION_TIMER.getCount(), SESSION_TIMER.getMeanNanos() / 1e6);
+        instance = null;
+    }
+    
+    private static synchronized DockerBrowserPool get(String browser, int poolSize) {
+        if (instance == null) {
+            DockerBrowserPool pool = new DockerBrowserPool();
+            pool.start(browser, poolSize);
+            instance = pool;
+        }
+        return instance;
+    }
+    
+    /**
+     * Starts {@code docker.containers} containers (default: one per pool slot)
+     * in parallel, each allowing its share of the pool's sessions.
+     */
+    private void start(String browser, int poolSize) {
+        removeStaleContainers();
+        
+        int count = Math.max(1, Math.min(poolSize, Integer.getInteger("docker.containers", poolSize)));
+        int sessionsPerContainer = (poolSize + count - 1) / count;
+        String image = System.getProperty("docker.browser.image", "selenium/standalone-" + browser)
+            + ":" + System.getProperty("docker.browser.tag", "latest");
+        System.out.println("Starting " + count + " " + image + " container(s), "
+            + sessionsPerContainer + " session(s) each");
+        
+        List<Thread> starters = new ArrayList<>();
+        List<RuntimeException> failures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            starters.add(Thread.ofVirtual().name("docker-browser-start-" + i).start(() -> {
+                try {
+                    Container container = startContainer(image, browser, sessionsPerContainer);
+                    synchronized (containers) {
+                        containers.add(container);
+                    }
+                } catch (RuntimeException e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+        try {
+            for (Thread starter : starters) {
+                starter.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting browser containers", e);
+        }
+        
+        if (containers.isEmpty()) {
+            throw new IllegalStateException("No browser container could be started", failures.get(0));
+        }
+        for (RuntimeException failure : failures) {
+            System.out.println("Failed to start browser container: " + failure.getMessage());
+        }
+    }
+    
+    /**
+     * Runs one container and waits for its server to accept sessions.
+     */
+    private static Container startContainer(String image, String browser, int maxSessions) {
+        long start = System.nanoTime();
+        String publish = "localhost".equals(HOST_ADDRESS) ? "127.0.0.1::4444" : "4444";
+        String id = docker("run", "-d", "--rm", "--shm-size=2g",
+            "--label", POOL_LABEL + "=true",
+            "--label", OWNER_LABEL + "=" + OWNER,
+            "-e", "SE_NODE_MAX_SESSIONS=" + maxSessions,
+            "-e", "SE_NODE_OVERRIDE_MAX_SESSIONS=true",
+            "-p", publish,
+            image);
+        
+        try {
+            String mapping = docker("port", id, "4444/tcp").lines().findFirst().orElse("");
+            String port = mapping.substring(mapping.lastIndexOf(':') + 1);
+            URL url = URI.create("http://" + HOST_ADDRESS + ":" + port).toURL();
+            if (GridClient.awaitFreeSlots(url, browser) < 1) {
+                throw new IllegalStateException("Container " + shortId(id) + " not ready at " + url);
+            }
+            long nanos = CONTAINER_TIMER.recordSince(start);
+            System.out.printf("Browser container %s ready at %s in %d ms%n",
+                shortId(id), url, TimeUnit.NANOSECONDS.toMillis(nanos));
+            return new Container(id, url);
+        } catch (MalformedURLException | RuntimeException e) {
+            removeQuietly(id);
+            throw e instanceof RuntimeException runtime ? runtime
+                : new IllegalStateException("Unexpected port mapping for container " + shortId(id), e);
+        }
+    }
+    
+    /**
+     * Counts a session on the container with the fewest sessions.
+     * The driver pool never asks for more sessions than the containers allow,
+     * so a free container exists unless one failed to start.
+     */
+    private synchronized Container reserve() {
+        Container least = containers.get(0);
+        for (Container container : containers) {
+            if (container.sessions < least.sessions) {
+                least = container;
+            }
+        }
+        least.sessions++;
+        return least;
+    }
+    
+    /**
+     * Removes containers of this pool whose owning process on this host is gone.
+     */
+    private static void removeStaleContainers() {
+        String hostPrefix = hostName() + ":";
+        String listing = docker("ps", "-a", "--filter", "label=" + POOL_LABEL,
+            "--format", "{{.ID}} {{.Label \"" + OWNER_LABEL + "\"}}");
+        for (String line : listing.lines().toList()) {
+            String[] parts = line.split(" ", 2);
+            if (parts.length < 2 || !parts[1].startsWith(hostPrefix)) {
+                continue;
+            }
+            try {
+                long pid = Long.parseLong(parts[1].substring(hostPrefix.length()));
+                if (ProcessHandle.of(pid).isEmpty()) {
+                    System.out.println("Removing browser container " + parts[0] + " left by process " + pid);
+                    removeQuietly(parts[0]);
+                }
+            } catch (NumberFormatException e) {
+                // Not one of ours
+            }
+        }
+    }
+    
+    private static void removeQuietly(String id) {
+        try {
+            docker("rm", "-f", id);
+        } catch (RuntimeException e) {
+            System.out.println("Failed to remove browser container " + shortId(id) + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Runs a docker CLI command.
+     * 
+     * @param args Command arguments
+     * @return Standard output, trimmed
+     */
+    private static String docker(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("docker.command", "docker"));
+        command.addAll(List.of(args));
+        try {
+            // Errors and image pull progress go to the console
+            Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IllegalStateException("docker " + args[0] + " exited with code " + exitCode);
+            }
+            return output;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot run docker, is it installed and on PATH?", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running docker " + args[0], e);
+        }
+    }
+    
+    private static String shortId(String id) {
+        return id.length() > 12 ? id.substring(0, 12) : id;
+    }
+    
+    private static String hostName() {
+        String host = System.getenv("HOSTNAME");
+        if (host == null || host.isEmpty()) {
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (IOException e) {
+                host = "localhost";
+            }
+        }
+        return host;
+    }
+    
+    private static final class Container {
+        
+        private final String id;
+        private final URL url;
+        private int sessions;
+        
+        private Container(String id, URL url) {
+            this.id = id;
+            this.url = url;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.cagip.samples.uat.driver;
+
+import com.cagip.samples.uat.metrics.Metrics;
+import com.cagip.samples.uat.metrics.Timer;
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves local driver binaries (chromedriver, geckodriver, msedgedriver) once per JVM.
+ * Resolution order:
+ * <ol>
+ *     <li>an explicit {@code webdriver.*.driver} system property,</li>
+ *     <li>in offline mode ({@code driver.resolution.offline=true}), the binary found on PATH,</li>
+ *     <li>the on-disk resolution cache, keyed by browser and browser version,</li>
+ *     <li>WebDriverManager, whose result is written back to the cache.</li>
+ * </ol>
+ */
+final class DriverBinaryResolver {
+    
+    private static final boolean OFFLINE = Boolean.getBoolean("driver.resolution.offline");
+    private static final Path CACHE_FILE = Path.of(System.getProperty("driver.resolution.cache",
+        System.getProperty("user.home") + "/.cache/uat-automation/driver-resolution.properties"));
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+(?:\\.\\d+)+)");
+    private static final String UNKNOWN_VERSION = "unknown";
+    
+    private static final Map<String, BrowserBinary> BINARIES = Map.of(
+        "chrome", new BrowserBinary("webdriver.chrome.driver", "chromedriver",
+            List.of("google-chrome", "google-chrome-stable", "chromium", "chromium-browser"),
+            WebDriverManager::chromedriver),
+        "firefox", new BrowserBinary("webdriver.gecko.driver", "geckodriver",
+            List.of("firefox"),
+            WebDriverManager::firefoxdriver),
+        "edge", new BrowserBinary("webdriver.edge.driver", "msedgedriver",
+            List.of("microsoft-edge", "microsoft-edge-stable"),
+            WebDriverManager::edgedriver)
+    );
+    
+    private static final Map<String, String> RESOLVED = new ConcurrentHashMap<>();
+    private static final Timer RESOLUTION_TIMER = Metrics.timer("driver.binary.resolution");
+    
+    private DriverBinaryResolver() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Makes sure the driver binary for the browser is resolved and registered
+     * in the matching {@code webdriver.*.driver} system property.
+     * Only the first call per browser does any work.
+     * 
+     * @param browser Browser type (chrome, firefox, edge)
+     */
+    static void resolve(String browser) {
+        RESOLVED.computeIfAbsent(browser, DriverBinaryResolver::resolveOnce);
+    }
+    
+    private static String resolveOnce(String browser) {
+        BrowserBinary binary = BINARIES.get(browser);
+        if (binary == null) {
+            throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+        
+        long start = System.nanoTime();
+        String source;
+        String driverPath = System.getProperty(binary.driverProperty());
+        
+        if (driverPath != null && !driverPath.isBlank()) {
+            source = "system property";
+        } else if (OFFLINE) {
+            driverPath = findOnPath(binary.driverBinary());
+            if (driverPath == null) {
+                throw new IllegalStateException("Offline driver resolution: " + binary.driverBinary()
+                    + " not found on PATH");
+            }
+            source = "PATH";
+        } else {
+            String cacheKey = browser + "." + detectBrowserVersion(binary);
+            driverPath = readCache(cacheKey);
+            if (driverPath != null) {
+                source = "cache";
+            } else {
+                WebDriverManager manager = binary.manager().get();
+                manager.setup();
+                driverPath = manager.getDownloadedDriverPath();
+                source = "WebDriverManager " + manager.getDownloadedDriverVersion();
+                if (!cacheKey.endsWith(UNKNOWN_VERSION)) {
+                    writeCache(cacheKey, driverPath);
+                }
+            }
+        }
+        
+        System.setProperty(binary.driverProperty(), driverPath);
+        long elapsed = RESOLUTION_TIMER.recordSince(start);
+        System.out.printf("Resolved %s via %s in %d ms: %s%n",
+            binary.driverBinary(), source, TimeUnit.NANOSECONDS.toMillis(elapsed), driverPath);
+        return driverPath;
+    }
+    
+    /**
+     * Looks for an executable in the PATH directories.
+     * 
+     * @param executable Executable name
+     * @return Absolute path, or null if not found
+     */
+    private static String findOnPath(String executable) {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return null;
+        }
+        boolean windows = System.getProperty("os.name", "").toLowerCase().contains("win");
+        for (String directory : path.split(File.pathSeparator)) {
+            Path candidate = Path.of(directory, windows ? executable + ".exe" : executable);
+            if (Files.isExecutable(candidate)) {
+                return candidate.toAbsolutePath().toString();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Asks the installed browser for its version.
+     * 
+     * @param binary Browser description
+     * @return Version string, or "unknown" if no browser command answered
+     */
+    private static String detectBrowserVersion(BrowserBinary binary) {
+        for (String command : binary.browserCommands()) {
+            if (findOnPath(command) == null) {
+                continue;
+            }
+            try {
+                Process process = new ProcessBuilder(command, "--version").redirectErrorStream(true).start();
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                    continue;
+                }
+                String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                Matcher matcher = VERSION_PATTERN.matcher(output);
+                if (matcher.find()) {
+                    return matcher.group(1);
+                }
+            } catch (IOException e) {
+                // Try the next command
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return UNKNOWN_VERSION;
+    }
+    
+    private static synchronized String readCache(String key) {
+        if (!Files.isRegularFile(CACHE_FILE)) {
+            return null;
+        }
+        Properties cache = new Properties();
+        try (InputStream in = Files.newInputStream(CACHE_FILE)) {
+            cache.load(in);
+        } catch (IOException e) {
+            System.out.println("Ignoring unreadable driver resolution cache: " + e.getMessage());
+            return null;
+        }
+        String driverPath = cache.getProperty(key);
+        return driverPath != null && Files.isExecutable(Path.of(driverPath)) ? driverPath : null;
+    }
+    
+    private static synchronized void writeCache(String key, String driverPath) {
+        Properties cache = new Properties();
+        try {
+            Files.createDirectories(CACHE_FILE.getParent());
+            if (Files.isRegularFile(CACHE_FILE)) {
+                try (InputStream in = Files.newInputStream(CACHE_FILE)) {
+                    cache.load(in);
+                }
+            }
+            cache.setProperty(key, driverPath);
+            try (OutputStream out = Files.newOutputStream(CACHE_FILE)) {
+                cache.store(out, "Driver binaries resolved by WebDriverManager, keyed by browser.version");
+            }
+        } catch (IOException e) {
+            System.out.println("Could not update driver resolution cache: " + e.getMessage());
+        }
+    }
+    
+    private record BrowserBinary(String driverProperty, String driverBinary, List<String> browserCommands,
+                                 Supplier<WebDriverManager> manager) {
+    }
+}
@@ -1,43 +1,280 @@
 package com.cagip.samples.uat.driver;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.cagip.samples.uat.metrics.Metrics;
+import com.cagip.samples.uat.metrics.Timer;
+import org.htmlunit.BrowserVersion;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Singleton pattern implementation for WebDriver management.
- * Ensures only one WebDriver instance is created per test execution.
- * Supports local, remote, and Docker-provisioned browsers.
+ * Thread-scoped WebDriver management.
+ * Each thread (and therefore each Cucumber scenario running on it) owns its own
+ * WebDriver instance, so scenarios can run in parallel without sharing a browser.
+ * The number of browsers alive at the same time is bounded by the
+ * {@code driver.pool.size} system property.
+ * With {@code driver.reuse.enabled=true} a browser is reset and kept for the
+ * next scenario on the same thread instead of being relaunched.
+ * Browsers can also be started ahead of time with {@link #prewarm(int)}; the
+ * first scenario on each thread then takes an already-started session.
+ * Short-lived threads can hand their session to other threads with {@link #parkDriver()}.
+ * Browser options for every creation path come from the {@link BrowserProfile}
+ * selected with {@code browser.profile}, including the requests the browser
+ * must block (see {@link NetworkControl}).
+ * Supports local, remote, and Docker-provisioned browsers, plus an in-process
+ * HtmlUnit backend ({@code browser=http}) for checks that don't need a real browser.
  */
 public class DriverFactory {
     
-    private static WebDriver driver;
     private static final String DEFAULT_BROWSER = "chrome";
+    private static final String HTTP_BROWSER = "http";
+    private static final boolean HTTP_JAVASCRIPT = Boolean.parseBoolean(
+        System.getProperty("browser.http.javascript", "true")
+    );
+    private static final BrowserProfile PROFILE = BrowserProfile.current();
+    private static final boolean REUSE_ENABLED = Boolean.getBoolean("driver.reuse.enabled");
+    private static final int REUSE_MAX_SCENARIOS = Math.max(1,
+        Integer.getInteger("driver.reuse.max.scenarios", 50)
+    );
+    
+    private static final ThreadLocal<DriverSession> SESSION = new ThreadLocal<>();
+    private static final Set<DriverSession> ACTIVE_SESSIONS = ConcurrentHashMap.newKeySet();
+    private static final BlockingQueue<DriverSession> WARM_SESSIONS = new LinkedBlockingQueue<>();
+    private static final AtomicInteger WARMING_SESSIONS = new AtomicInteger();
+    
+    private static final WebDriver LAZY_DRIVER = LazyDriver.create();
+    
+    private static final Timer CREATE_TIMER = Metrics.timer("driver.session.create");
+    private static final Timer RESET_TIMER = Metrics.timer("driver.session.reset");
+    private static final Timer POOL_WAIT_TIMER = Metrics.timer("driver.pool.wait");
+    
+    static {
+        // Safety net for drivers left open by threads that never reached quitDriver()
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            quitAllDrivers();
+            DockerBrowserPool.shutdown();
+            if (REUSE_ENABLED) {
+                System.out.println(getReuseSummary());
+            }
+        }, "driver-factory-shutdown"));
+    }
     
     private DriverFactory() {
         // Private constructor to prevent instantiation
     }
     
     /**
-     * Gets the singleton WebDriver instance.
-     * Creates it if it doesn't exist.
+     * Gets the WebDriver instance bound to the current thread.
+     * Creates it if it doesn't exist, blocking while the pool is exhausted.
      * 
      * @return WebDriver instance
      */
     public static WebDriver getDriver() {
-        if (driver == null) {
-            driver = createDriver();
+        DriverSession session = SESSION.get();
+        if (session == null) {
+            long waitStart = System.nanoTime();
+            session = takeWarmSession();
+            if (session == null) {
+                acquirePoolPermit();
+                POOL_WAIT_TIMER.recordSince(waitStart);
+                session = startSession();
+            } else {
+                POOL_WAIT_TIMER.recordSince(waitStart);
+            }
+            SESSION.set(session);
+        }
+        return session.getDriver();
+    }
+    
+    /**
+     * Starts browsers in the background so scenarios don't pay for startup.
+     * Each browser takes a pool slot; no more than {@code driver.pool.size}
+     * browsers are started.
+     * 
+     * @param count Number of browsers to start
+     */
+    public static void prewarm(int count) {
+        int sessions = Math.min(count, Pool.SIZE);
+        System.out.println("Pre-warming " + sessions + " browser session(s)");
+        for (int i = 0; i < sessions; i++) {
+            if (!Pool.PERMITS.tryAcquire()) {
+                break;
+            }
+            WARMING_SESSIONS.incrementAndGet();
+            Thread.ofVirtual().name("driver-prewarm-" + i).start(() -> {
+                try {
+                    WARM_SESSIONS.add(startSession());
+                } catch (RuntimeException e) {
+                    System.out.println("Failed to pre-warm browser session: " + e.getMessage());
+                } finally {
+                    WARMING_SESSIONS.decrementAndGet();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Quits pre-warmed browsers that no scenario picked up.
+     */
+    public static void discardWarmSessions() {
+        DriverSession session;
+        while ((session = WARM_SESSIONS.poll()) != null) {
+            quitSession(session);
+        }
+    }
+    
+    /**
+     * Takes a pre-warmed session, waiting for one that is still starting.
+     * 
+     * @return Started session, or null if no pre-warmed session is available
+     */
+    private static DriverSession takeWarmSession() {
+        DriverSession session = WARM_SESSIONS.poll();
+        try {
+            while (session == null && WARMING_SESSIONS.get() > 0) {
+                session = WARM_SESSIONS.poll(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a pre-warmed WebDriver", e);
+        }
+        return session;
+    }
+    
+    /**
+     * Creates a browser session for an already-acquired pool slot.
+     * The slot is released if the browser fails to start.
+     * 
+     * @return Started session
+     */
+    private static DriverSession startSession() {
+        try {
+            long start = System.nanoTime();
+            WebDriver driver = createDriver();
+            long creationNanos = CREATE_TIMER.recordSince(start);
+            System.out.printf("Browser session started in %d ms%n", TimeUnit.NANOSECONDS.toMillis(creationNanos));
+            DriverSession session = new DriverSession(driver, creationNanos);
+            ACTIVE_SESSIONS.add(session);
+            return session;
+        } catch (RuntimeException e) {
+            Pool.PERMITS.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Hands the current thread's driver back at the end of a scenario.
+     * Without session reuse the driver is quit. With reuse enabled the browser
+     * is reset and kept, unless the scenario failed, the session reached
+     * {@code driver.reuse.max.scenarios}, or the browser fails its health check.
+     * 
+     * @param scenarioFailed true if the scenario that used the driver failed
+     */
+    public static void releaseDriver(boolean scenarioFailed) {
+        DriverSession session = SESSION.get();
+        if (session == null) {
+            return;
+        }
+        if (!REUSE_ENABLED) {
+            quitDriver();
+            return;
+        }
+        
+        int served = session.markScenarioServed();
+        String recycleReason = null;
+        if (scenarioFailed) {
+            recycleReason = "scenario failed";
+        } else if (served >= REUSE_MAX_SCENARIOS) {
+            recycleReason = "served " + served + " scenarios";
+        } else {
+            long start = System.nanoTime();
+            boolean healthy = BrowserStateReset.reset(session.getDriver());
+            RESET_TIMER.recordSince(start);
+            if (!healthy) {
+                recycleReason = "health check failed";
+            }
+        }
+        
+        if (recycleReason != null) {
+            System.out.println("Recycling browser session: " + recycleReason);
+            Metrics.increment("driver.session.recycled");
+            quitDriver();
+        } else {
+            Metrics.increment("driver.session.reused");
+        }
+    }
+    
+    /**
+     * Detaches the current thread's session and makes it available to the next
+     * thread asking for a driver, the same way as a pre-warmed session.
+     * Lets many short-lived threads (such as load test virtual users) share a
+     * few browsers. Callers must keep the number of threads using drivers at
+     * the same time within the pool size, otherwise a thread can block on a
+     * pool slot held by a parked session.
+     */
+    public static void parkDriver() {
+        DriverSession session = SESSION.get();
+        if (session != null) {
+            SESSION.remove();
+            WARM_SESSIONS.add(session);
+        }
+    }
+    
+    /**
+     * Gets a handle that starts the current thread's browser only when the
+     * first WebDriver command is sent through it.
+     * Page objects built on it cost nothing until a step actually uses the browser.
+     * 
+     * @return Lazy WebDriver handle, shared by all threads
+     */
+    public static WebDriver getLazyDriver() {
+        return LAZY_DRIVER;
+    }
+    
+    /**
+     * Resolves the local driver binary of a browser (see {@link DriverBinaryResolver})
+     * and registers it in its {@code webdriver.*.driver} system property, for
+     * browsers started outside this factory such as the in-process grid's.
+     * 
+     * @param browser Browser type (chrome, firefox, edge)
+     */
+    public static void resolveDriverBinary(String browser) {
+        DriverBinaryResolver.resolve(browser.toLowerCase());
+    }
+    
+    /**
+     * Gets the maximum number of browsers that may be alive at the same time.
+     * 
+     * @return Pool size
+     */
+    public static int getPoolSize() {
+        return Pool.SIZE;
+    }
+    
+    /**
+     * Waits for a free slot in the driver pool.
+     */
+    private static void acquirePoolPermit() {
+        try {
+            Pool.PERMITS.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free WebDriver slot", e);
         }
-        return driver;
     }
     
     /**
@@ -55,8 +292,12 @@ public class DriverFactory {
         
         WebDriver newDriver;
         
+        // In-process HTTP backend: no browser process, wherever browsers would run
+        if (HTTP_BROWSER.equals(browser)) {
+            newDriver = createHttpDriver();
+        }
         // Check if using remote browser
-        if (!remoteBrowserUrl.isEmpty()) {
+        else if (!remoteBrowserUrl.isEmpty()) {
             newDriver = createRemoteDriver(browser, remoteBrowserUrl);
         }
         // Check if using Docker-provisioned browser
@@ -68,15 +309,32 @@ public class DriverFactory {
             newDriver = createLocalDriver(browser);
         }
         
-        // Configure timeouts
-        newDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        newDriver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-        
-        return newDriver;
+        try {
+            // Configure timeouts: no implicit wait, page objects use explicit waits only
+            newDriver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            newDriver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+            NetworkControl.blockRequests(newDriver, PROFILE.getBlockedUrlPatterns());
+            
+            if (CommandProfiler.ENABLED) {
+                return CommandProfiler.decorate(newDriver);
+            }
+            return newDriver;
+        } catch (RuntimeException e) {
+            // The browser is running: don't leak it (or its grid slot) when its setup fails
+            try {
+                newDriver.quit();
+            } catch (RuntimeException quitFailure) {
+                e.addSuppressed(quitFailure);
+            } finally {
+                DockerBrowserPool.release(newDriver);
+            }
+            throw e;
+        }
     }
     
     /**
      * Creates a local WebDriver instance.
+     * Driver binaries are resolved once per JVM by {@link DriverBinaryResolver}.
      * 
      * @param browser Browser type (chrome, firefox, edge)
      * @return WebDriver instance
@@ -86,25 +344,18 @@ public class DriverFactory {
         
         switch (browser) {
             case "chrome":
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions chromeOptions = new ChromeOptions();
-                chromeOptions.addArguments("--start-maximized");
-                chromeOptions.addArguments("--disable-notifications");
-                newDriver = new ChromeDriver(chromeOptions);
+                DriverBinaryResolver.resolve("chrome");
+                newDriver = new ChromeDriver(PROFILE.chromeOptions());
                 break;
                 
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                FirefoxOptions firefoxOptions = new FirefoxOptions();
-                firefoxOptions.addArguments("--start-maximized");
-                newDriver = new FirefoxDriver(firefoxOptions);
+                DriverBinaryResolver.resolve("firefox");
+                newDriver = new FirefoxDriver(PROFILE.firefoxOptions());
                 break;
                 
             case "edge":
-                WebDriverManager.edgedriver().setup();
-                EdgeOptions edgeOptions = new EdgeOptions();
-                edgeOptions.addArguments("--start-maximized");
-                newDriver = new EdgeDriver(edgeOptions);
+                DriverBinaryResolver.resolve("edge");
+                newDriver = new EdgeDriver(PROFILE.edgeOptions());
                 break;
                 
             default:
@@ -114,120 +365,182 @@ public class DriverFactory {
         return newDriver;
     }
     
+    /**
+     * Creates an in-process HtmlUnit driver: an HTTP client and HTML parser
+     * with its own JavaScript engine, no browser process and no screenshots.
+     * JavaScript can be turned off with {@code browser.http.javascript=false}
+     * for pure form/DOM checks; script-based helpers then fall back or fail.
+     * 
+     * @return WebDriver instance
+     */
+    private static WebDriver createHttpDriver() {
+        return new HtmlUnitDriver(BrowserVersion.BEST_SUPPORTED, HTTP_JAVASCRIPT);
+    }
+    
     /**
      * Creates a remote WebDriver instance using Selenium Grid or remote server.
+     * Sessions share one tuned HTTP client per grid (see {@link GridClient}).
      * 
      * @param browser Browser type (chrome, firefox, edge)
      * @param remoteUrl Remote browser URL
      * @return WebDriver instance
      */
     private static WebDriver createRemoteDriver(String browser, String remoteUrl) {
-        try {
-            URL url = new URL(remoteUrl);
-            WebDriver newDriver;
-            
-            switch (browser) {
-                case "chrome":
-                    ChromeOptions chromeOptions = new ChromeOptions();
-                    chromeOptions.addArguments("--start-maximized");
-                    chromeOptions.addArguments("--disable-notifications");
-                    newDriver = WebDriverManager.chromedriver()
-                        .remoteAddress(url)
-                        .capabilities(chromeOptions)
-                        .create();
-                    break;
-                    
-                case "firefox":
-                    FirefoxOptions firefoxOptions = new FirefoxOptions();
-                    firefoxOptions.addArguments("--start-maximized");
-                    newDriver = WebDriverManager.firefoxdriver()
-                        .remoteAddress(url)
-                        .capabilities(firefoxOptions)
-                        .create();
-                    break;
-                    
-                case "edge":
-                    EdgeOptions edgeOptions = new EdgeOptions();
-                    edgeOptions.addArguments("--start-maximized");
-                    newDriver = WebDriverManager.edgedriver()
-                        .remoteAddress(url)
-                        .capabilities(edgeOptions)
-                        .create();
-                    break;
-                    
-                default:
-                    throw new IllegalArgumentException("Browser not supported: " + browser);
-            }
-            
-            return newDriver;
-            
-        } catch (MalformedURLException e) {
-            throw new IllegalArgumentException("Invalid remote browser URL: " + remoteUrl, e);
-        }
+        return GridClient.createSession(remoteUrl(remoteUrl), browserOptions(browser));
     }
     
     /**
-     * Creates a WebDriver instance with browser running in Docker container.
-     * WebDriverManager will automatically download and manage the Docker image.
+     * Gets the profile's options for a browser running outside this JVM.
      * 
      * @param browser Browser type (chrome, firefox, edge)
-     * @return WebDriver instance
+     * @return Browser options
      */
-    private static WebDriver createDockerDriver(String browser) {
-        WebDriver newDriver;
-        
+    private static Capabilities browserOptions(String browser) {
         switch (browser) {
             case "chrome":
-                ChromeOptions chromeOptions = new ChromeOptions();
-                chromeOptions.addArguments("--start-maximized");
-                chromeOptions.addArguments("--disable-notifications");
-                newDriver = WebDriverManager.chromedriver()
-                    .browserInDocker()
-                    .capabilities(chromeOptions)
-                    .create();
-                break;
+                return PROFILE.chromeOptions();
                 
             case "firefox":
-                FirefoxOptions firefoxOptions = new FirefoxOptions();
-                firefoxOptions.addArguments("--start-maximized");
-                newDriver = WebDriverManager.firefoxdriver()
-                    .browserInDocker()
-                    .capabilities(firefoxOptions)
-                    .create();
-                break;
+                return PROFILE.firefoxOptions();
                 
             case "edge":
-                EdgeOptions edgeOptions = new EdgeOptions();
-                edgeOptions.addArguments("--start-maximized");
-                newDriver = WebDriverManager.edgedriver()
-                    .browserInDocker()
-                    .capabilities(edgeOptions)
-                    .create();
-                break;
+                return PROFILE.edgeOptions();
                 
             default:
                 throw new IllegalArgumentException("Browser not supported: " + browser);
         }
+    }
+    
+    private static URL remoteUrl(String remoteUrl) {
+        try {
+            return new URL(remoteUrl);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid remote browser URL: " + remoteUrl, e);
+        }
+    }
+    
+    /**
+     * Pool size and slots, resolved on first use rather than when the factory is
+     * loaded, since asking the grid can take up to {@code grid.ready.timeout.s}.
+     */
+    private static final class Pool {
         
-        return newDriver;
+        static final int SIZE = poolSize();
+        static final Semaphore PERMITS = new Semaphore(SIZE, true);
+    }
+    
+    /**
+     * Computes the pool size: {@code driver.pool.size} (default: number of CPUs),
+     * capped by the free slots of the grid for remote browsers. Scenario threads
+     * beyond the cap wait for a slot instead of queueing sessions on the grid.
+     * Grid discovery can be turned off with {@code grid.capacity.enabled=false};
+     * if it fails, the configured size is kept.
+     * 
+     * @return Maximum number of browsers alive at the same time
+     */
+    private static int poolSize() {
+        int configured = Math.max(1,
+            Integer.getInteger("driver.pool.size", Runtime.getRuntime().availableProcessors())
+        );
+        String remoteBrowserUrl = System.getProperty("remote.browser", "");
+        String browser = System.getProperty("browser", DEFAULT_BROWSER).toLowerCase();
+        if (remoteBrowserUrl.isEmpty() || HTTP_BROWSER.equals(browser)
+            || !Boolean.parseBoolean(System.getProperty("grid.capacity.enabled", "true"))) {
+            return configured;
+        }
+        
+        int freeSlots;
+        try {
+            freeSlots = GridClient.awaitFreeSlots(remoteUrl(remoteBrowserUrl), browser);
+        } catch (RuntimeException e) {
+            System.out.println("Could not read the capacity of grid " + remoteBrowserUrl + ": " + e.getMessage());
+            freeSlots = -1;
+        }
+        if (freeSlots < 0) {
+            System.out.println("Grid at " + remoteBrowserUrl + " not ready, keeping pool size " + configured);
+            return configured;
+        }
+        int poolSize = Math.max(1, Math.min(configured, freeSlots));
+        System.out.println("Grid at " + remoteBrowserUrl + " has " + freeSlots + " free " + browser
+            + " slot(s), pool size " + poolSize);
+        return poolSize;
     }
     
     /**
-     * Quits the WebDriver instance and sets it to null.
+     * Creates a WebDriver instance with browser running in Docker container.
+     * Containers are started once per run and shared by all sessions
+     * (see {@link DockerBrowserPool}).
+     * 
+     * @param browser Browser type (chrome, firefox, edge)
+     * @return WebDriver instance
+     */
+    private static WebDriver createDockerDriver(String browser) {
+        return DockerBrowserPool.createSession(browser, browserOptions(browser), Pool.SIZE);
+    }
+    
+    /**
+     * Quits the WebDriver instance bound to the current thread and releases its pool slot.
      */
     public static void quitDriver() {
-        if (driver != null) {
-            driver.quit();
-            driver = null;
+        DriverSession session = SESSION.get();
+        if (session != null) {
+            SESSION.remove();
+            quitSession(session);
+        }
+    }
+    
+    /**
+     * Quits a session's browser and releases its pool slot.
+     * 
+     * @param session Session to quit
+     */
+    private static void quitSession(DriverSession session) {
+        try {
+            session.getDriver().quit();
+        } finally {
+            DockerBrowserPool.release(session.getDriver());
+            ACTIVE_SESSIONS.remove(session);
+            Pool.PERMITS.release();
         }
     }
     
     /**
-     * Checks if driver is initialized.
+     * Quits every driver still alive, whatever thread created it.
+     */
+    private static void quitAllDrivers() {
+        for (DriverSession session : ACTIVE_SESSIONS) {
+            try {
+                session.getDriver().quit();
+            } catch (RuntimeException e) {
+                System.out.println("Failed to quit driver on shutdown: " + e.getMessage());
+            }
+        }
+        ACTIVE_SESSIONS.clear();
+    }
+    
+    /**
+     * Summarizes how much browser startup time session reuse avoided.
+     * Each reuse saves one average session creation but costs one reset.
+     * 
+     * @return Human-readable summary
+     */
+    public static String getReuseSummary() {
+        long reused = Metrics.count("driver.session.reused");
+        long savedNanos = reused * CREATE_TIMER.getMeanNanos() - RESET_TIMER.getTotalNanos();
+        return String.format(
+            "Session reuse: %d reused, %d recycled, %d created (avg %.0f ms), %d resets (avg %.0f ms), ~%.1f s saved",
+            reused, Metrics.count("driver.session.recycled"),
+            CREATE_TIMER.getCount(), CREATE_TIMER.getMeanNanos() / 1e6,
+            RESET_TIMER.getCount(), RESET_TIMER.getMeanNanos() / 1e6,
+            Math.max(0, savedNanos) / 1e9);
+    }
+    
+    /**
+     * Checks if a driver is initialized for the current thread.
      * 
      * @return true if driver exists, false otherwise
      */
     public static boolean isDriverInitialized() {
-        return driver != null;
+        return SESSION.get() != null;
     }
 }
\ No newline at end of file
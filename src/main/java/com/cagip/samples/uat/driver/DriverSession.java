@@ -0,0 +1,40 @@
+package com.cagip.samples.uat.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * A WebDriver together with the bookkeeping needed to decide when to recycle it.
+ */
+final class DriverSession {
+    
+    private final WebDriver driver;
+    private final long creationNanos;
+    private int scenariosServed;
+    
+    DriverSession(WebDriver driver, long creationNanos) {
+        this.driver = driver;
+        this.creationNanos = creationNanos;
+    }
+    
+    WebDriver getDriver() {
+        return driver;
+    }
+    
+    /**
+     * Gets how long it took to start this browser session.
+     * 
+     * @return Creation time in nanoseconds
+     */
+    long getCreationNanos() {
+        return creationNanos;
+    }
+    
+    /**
+     * Records that one more scenario finished on this session.
+     * 
+     * @return Number of scenarios served so far
+     */
+    int markScenarioServed() {
+        return ++scenariosServed;
+    }
+}
@@ -0,0 +1,174 @@
+package com.cagip.samples.uat.driver;
+
+import com.cagip.samples.uat.metrics.Metrics;
+import com.cagip.samples.uat.metrics.Timer;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Talks to a Selenium Grid (or standalone server).
+ * All remote sessions share one HTTP client per grid URL, configured once:
+ * connections are kept alive and pooled by the JDK client instead of being
+ * opened per session, with explicit connect and read timeouts
+ * ({@code grid.connect.timeout.s}, default 10; {@code grid.read.timeout.s},
+ * default 300, long enough for a session request queued by the grid).
+ * The grid's {@code /status} is used to wait for readiness and to find the
+ * number of free slots for a browser.
+ */
+final class GridClient {
+    
+    private static final ClientConfig CLIENT_CONFIG = ClientConfig.defaultConfig()
+        .connectionTimeout(Duration.ofSeconds(Long.getLong("grid.connect.timeout.s", 10L)))
+        .readTimeout(Duration.ofSeconds(Long.getLong("grid.read.timeout.s", 300L)));
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(Long.getLong("grid.ready.timeout.s", 60L));
+    private static final HttpClient.Factory CLIENT_FACTORY = new SharedClientFactory();
+    
+    private static final Timer SESSION_TIMER = Metrics.timer("grid.session.create");
+    
+    private GridClient() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Creates a remote session through the shared HTTP client of the grid.
+     * The time recorded in {@code grid.session.create} includes any time the
+     * request waited in the grid's own session queue.
+     * The driver is augmented with the features the session advertises, such
+     * as DevTools for Chromium browsers and BiDi when requested.
+     * 
+     * @param gridUrl Grid URL
+     * @param capabilities Requested browser options
+     * @return Remote WebDriver
+     */
+    static WebDriver createSession(URL gridUrl, Capabilities capabilities) {
+        long start = System.nanoTime();
+        HttpCommandExecutor executor = new HttpCommandExecutor(Map.of(), CLIENT_CONFIG.baseUrl(gridUrl), CLIENT_FACTORY);
+        WebDriver driver = new Augmenter().augment(new RemoteWebDriver(executor, capabilities));
+        SESSION_TIMER.recordSince(start);
+        return driver;
+    }
+    
+    /**
+     * Waits up to {@code grid.ready.timeout.s} for the grid to report ready,
+     * then counts the free slots that can run a browser.
+     * 
+     * @param gridUrl Grid URL
+     * @param browser Browser type (chrome, firefox, edge)
+     * @return Free slots for the browser, or -1 if the grid did not answer in time
+     */
+    static int awaitFreeSlots(URL gridUrl, String browser) {
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        HttpClient client = CLIENT_FACTORY.createClient(CLIENT_CONFIG.baseUrl(gridUrl));
+        while (true) {
+            try {
+                Map<String, Object> status = status(client);
+                if (Boolean.TRUE.equals(status.get("ready"))) {
+                    return freeSlots(status, browser);
+                }
+            } catch (RuntimeException e) {
+                // Not reachable yet
+            }
+            if (System.nanoTime() > deadline) {
+                return -1;
+            }
+            try {
+                TimeUnit.SECONDS.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> status(HttpClient client) {
+        HttpResponse response = client.execute(new HttpRequest(HttpMethod.GET, "/status"));
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException("Grid status returned HTTP " + response.getStatus());
+        }
+        try {
+            Map<String, Object> json = new Json().toType(Contents.string(response), Json.MAP_TYPE);
+            return (Map<String, Object>) json.getOrDefault("value", Map.of());
+        } catch (JsonException | ClassCastException e) {
+            throw new IllegalStateException("Unreadable grid status", e);
+        }
+    }
+    
+    /**
+     * Counts the free slots of available nodes whose stereotype runs the browser.
+     */
+    @SuppressWarnings("unchecked")
+    private static int freeSlots(Map<String, Object> status, String browser) {
+        String browserName = "edge".equals(browser) ? "MicrosoftEdge" : browser;
+        int free = 0;
+        for (Map<String, Object> node : (List<Map<String, Object>>) status.getOrDefault("nodes", List.of())) {
+            if (!"UP".equals(node.get("availability"))) {
+                continue;
+            }
+            for (Map<String, Object> slot : (List<Map<String, Object>>) node.getOrDefault("slots", List.of())) {
+                Map<String, Object> stereotype = (Map<String, Object>) slot.getOrDefault("stereotype", Map.of());
+                if (slot.get("session") == null && browserName.equalsIgnoreCase(String.valueOf(stereotype.get("browserName")))) {
+                    free++;
+                }
+            }
+        }
+        return free;
+    }
+    
+    /**
+     * Hands every executor the same client for a given grid URL. Executors
+     * close their client on quit, so the shared one is wrapped to ignore it.
+     */
+    private static final class SharedClientFactory implements HttpClient.Factory {
+        
+        private final HttpClient.Factory delegate = HttpClient.Factory.createDefault();
+        private final Map<URI, HttpClient> clients = new ConcurrentHashMap<>();
+        
+        @Override
+        public HttpClient createClient(ClientConfig config) {
+            HttpClient shared = clients.computeIfAbsent(config.baseUri(), uri -> delegate.createClient(config));
+            return new HttpClient() {
+                @Override
+                public HttpResponse execute(HttpRequest request) {
+                    return shared.execute(request);
+                }
+                
+                @Override
+                public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+                    return shared.executeAsync(request);
+                }
+                
+                @Override
+                public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+                    return shared.openSocket(request, listener);
+                }
+                
+                @Override
+                public void close() {
+                    // Shared by all sessions of the grid
+                }
+            };
+        }
+    }
+}
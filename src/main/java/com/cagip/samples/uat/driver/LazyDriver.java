@@ -0,0 +1,66 @@
+package com.cagip.samples.uat.driver;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.Interactive;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * WebDriver handle that only starts a browser when a command is actually sent.
+ * Every call is forwarded to the driver bound to the calling thread
+ * ({@link DriverFactory#getDriver()}), so one handle can be shared safely.
+ */
+final class LazyDriver implements InvocationHandler {
+    
+    private static final Class<?>[] INTERFACES = {
+        WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class,
+        HasCapabilities.class, Interactive.class, WrapsDriver.class
+    };
+    
+    private LazyDriver() {
+    }
+    
+    /**
+     * Creates the lazy handle.
+     * 
+     * @return WebDriver proxy
+     */
+    static WebDriver create() {
+        return (WebDriver) Proxy.newProxyInstance(LazyDriver.class.getClassLoader(), INTERFACES, new LazyDriver());
+    }
+    
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "toString":
+                return "LazyDriver(" + (DriverFactory.isDriverInitialized() ? "started" : "not started") + ")";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "getWrappedDriver":
+                return DriverFactory.getDriver();
+            default:
+                break;
+        }
+        
+        WebDriver driver = DriverFactory.getDriver();
+        if (!method.getDeclaringClass().isInstance(driver)) {
+            throw new UnsupportedCommandException(driver.getClass().getSimpleName()
+                + " does not implement " + method.getDeclaringClass().getSimpleName());
+        }
+        try {
+            return method.invoke(driver, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.cagip.samples.uat.driver;
+
+import com.cagip.samples.uat.metrics.Metrics;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.AddInterceptParameters;
+import org.openqa.selenium.bidi.network.BeforeRequestSent;
+import org.openqa.selenium.bidi.network.ContinueRequestParameters;
+import org.openqa.selenium.bidi.network.InterceptPhase;
+import org.openqa.selenium.bidi.network.UrlPattern;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Blocks requests matching the profile's URL patterns inside the browser, so pages
+ * don't wait for third-party scripts, fonts and analytics calls.
+ * Chrome and Edge use the DevTools {@code Network.setBlockedURLs} command, which
+ * the browser applies itself. Firefox uses a WebDriver BiDi request intercept
+ * limited to the host names named by the patterns (BiDi URL patterns have no
+ * wildcards, so other subdomains must be listed as patterns of their own); the
+ * intercepted requests are failed or continued depending on the patterns, and all
+ * other requests are not paused.
+ * Both run over the existing driver connection and need no network access.
+ * Remote sessions get these capabilities through the {@code Augmenter} (see {@link GridClient}).
+ */
+final class NetworkControl {
+    
+    private static final AtomicBoolean UNSUPPORTED_REPORTED = new AtomicBoolean();
+    
+    // Optional scheme, optional leading wildcard, host name, then anything after a port, path or wildcard
+    private static final Pattern HOST = Pattern.compile(
+        "(?:(?:\\*|[a-z]+)://)?(\\*?\\.?)([a-z0-9-]+(?:\\.[a-z0-9-]+)+)(?:[:/*].*)?",
+        Pattern.CASE_INSENSITIVE
+    );
+    
+    private NetworkControl() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Installs request blocking on a new session.
+     * Drivers without DevTools or BiDi support are left as they are.
+     * 
+     * @param driver New driver
+     * @param patterns URL patterns with {@code *} wildcards
+     */
+    static void blockRequests(WebDriver driver, List<String> patterns) {
+        if (patterns.isEmpty()) {
+            return;
+        }
+        try {
+            if (driver instanceof HasCdp cdp) {
+                cdp.executeCdpCommand("Network.enable", Map.of());
+                cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+            } else if (driver instanceof HasBiDi bidi && bidi.maybeGetBiDi().isPresent()) {
+                interceptWithBiDi(driver, patterns);
+            } else if (UNSUPPORTED_REPORTED.compareAndSet(false, true)) {
+                System.out.println("Request blocking not supported by " + driver.getClass().getSimpleName()
+                    + ", network.block.patterns ignored");
+            }
+        } catch (WebDriverException e) {
+            System.out.println("Could not install request blocking: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Pauses the requests to the blocked hosts before they are sent and fails the ones
+     * matching the patterns. When a pattern names no host (such as {@code *.woff2}),
+     * every request has to be paused.
+     * The module stays registered on the driver's BiDi connection until the session ends.
+     */
+    @SuppressWarnings("resource")
+    private static void interceptWithBiDi(WebDriver driver, List<String> patterns) {
+        Pattern blocked = toRegex(patterns);
+        AddInterceptParameters intercept = new AddInterceptParameters(InterceptPhase.BEFORE_REQUEST_SENT);
+        List<UrlPattern> hosts = toHostPatterns(patterns);
+        if (hosts != null) {
+            intercept.urlPatterns(hosts);
+        } else {
+            System.out.println("Some network.block.patterns name no host, every request is intercepted");
+        }
+        Network network = new Network(driver);
+        network.addIntercept(intercept);
+        network.onBeforeRequestSent((BeforeRequestSent event) -> {
+            if (!event.isBlocked()) {
+                return;
+            }
+            String requestId = event.getRequest().getRequestId();
+            try {
+                if (blocked.matcher(event.getRequest().getUrl()).matches()) {
+                    Metrics.increment("network.requests.blocked");
+                    network.failRequest(requestId);
+                } else {
+                    network.continueRequest(new ContinueRequestParameters(requestId));
+                }
+            } catch (WebDriverException e) {
+                // Session closed while the request was paused
+            }
+        });
+    }
+    
+    /**
+     * Turns patterns into BiDi host name patterns, which have no wildcards: a
+     * leading wildcard ({@code *google-analytics.com*}) stands for the host and its
+     * {@code www.} subdomain. The regular expression stays the final check.
+     * 
+     * @return Host patterns, or null if a pattern names no host
+     */
+    private static List<UrlPattern> toHostPatterns(List<String> patterns) {
+        Set<String> hosts = new LinkedHashSet<>();
+        for (String pattern : patterns) {
+            Matcher matcher = HOST.matcher(pattern);
+            if (!matcher.matches()) {
+                return null;
+            }
+            String host = matcher.group(2).toLowerCase(Locale.ROOT);
+            hosts.add(host);
+            if (!matcher.group(1).isEmpty() && !host.startsWith("www.")) {
+                hosts.add("www." + host);
+            }
+        }
+        return hosts.stream().map(host -> new UrlPattern().hostname(host)).toList();
+    }
+    
+    /**
+     * Turns {@code *} wildcard patterns into one regular expression, the way
+     * {@code Network.setBlockedURLs} interprets them.
+     */
+    private static Pattern toRegex(List<String> patterns) {
+        return Pattern.compile(patterns.stream()
+            .map(pattern -> Pattern.quote(pattern).replace("*", "\\E.*\\Q"))
+            .collect(Collectors.joining("|")));
+    }
+}
@@ -0,0 +1,82 @@
+package com.cagip.samples.uat.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of framework timers and counters.
+ * Used by the driver and page layers to expose where time goes.
+ * A summary is printed when the JVM exits if anything was recorded.
+ */
+public final class Metrics {
+    
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (!TIMERS.isEmpty() || !COUNTERS.isEmpty()) {
+                System.out.println(report());
+            }
+        }, "metrics-report"));
+    }
+    
+    private Metrics() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Gets (or registers) the timer with the given name.
+     * 
+     * @param name Timer name, e.g. "driver.session.create"
+     * @return Timer instance
+     */
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, Timer::new);
+    }
+    
+    /**
+     * Increments the counter with the given name by one.
+     * 
+     * @param name Counter name
+     */
+    public static void increment(String name) {
+        add(name, 1);
+    }
+    
+    /**
+     * Adds a value to the counter with the given name.
+     * 
+     * @param name Counter name
+     * @param delta Value to add
+     */
+    public static void add(String name, long delta) {
+        COUNTERS.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+    
+    /**
+     * Gets the current value of a counter.
+     * 
+     * @param name Counter name
+     * @return Counter value, 0 if never incremented
+     */
+    public static long count(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+    
+    /**
+     * Builds a human-readable summary of every timer and counter.
+     * 
+     * @return Report text
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder("=== Framework metrics ===");
+        new TreeMap<>(TIMERS).values().forEach(timer -> report.append(System.lineSeparator()).append(timer));
+        new TreeMap<>(COUNTERS).forEach((name, value) ->
+            report.append(System.lineSeparator()).append(name).append(": ").append(value.sum()));
+        return report.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.cagip.samples.uat.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free duration accumulator.
+ * Safe to record from any number of threads concurrently.
+ */
+public final class Timer {
+    
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+    
+    Timer(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Records one duration.
+     * 
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+    
+    /**
+     * Records the time elapsed since the given {@link System#nanoTime()} value.
+     * 
+     * @param startNanos Start time from System.nanoTime()
+     * @return Recorded duration in nanoseconds
+     */
+    public long recordSince(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        record(elapsed);
+        return elapsed;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+    
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+    
+    /**
+     * Gets the mean recorded duration.
+     * 
+     * @return Mean in nanoseconds, 0 if nothing was recorded
+     */
+    public long getMeanNanos() {
+        long samples = getCount();
+        return samples == 0 ? 0 : getTotalNanos() / samples;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d total=%.1fms mean=%.1fms max=%.1fms",
+            name, getCount(), getTotalNanos() / 1e6, getMeanNanos() / 1e6, getMaxNanos() / 1e6);
+    }
+}
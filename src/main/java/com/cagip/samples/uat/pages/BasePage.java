@@ -1,35 +1,90 @@
 package com.cagip.samples.uat.pages;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Base class for all Page Objects.
  * Contains common methods used across all pages.
+ * Element fields are initialized by {@link PageObjectEngine}, which caches
+ * locator metadata per class and element handles per page instance.
+ * All waits go through {@link WaitEngine}; drivers have no implicit wait.
+ * Pages are opened with {@link #navigateTo(String)}, which records navigation timing.
+ * With {@code interaction.mode=batched}, form flows fill and submit in a single
+ * script call instead of typing keystrokes (see {@link #fillAndSubmit(Map, By)}).
  */
 public abstract class BasePage {
     
+    private static final boolean BATCHED_INTERACTIONS = "batched".equalsIgnoreCase(
+        System.getProperty("interaction.mode", "keystroke")
+    );
+    
+    private static final String FILL_AND_SUBMIT_SCRIPT =
+        "var fields = arguments[0], submitSelector = arguments[1];"
+        + "var elements = [];"
+        + "for (var i = 0; i < fields.length; i++) {"
+        + "  var el = document.querySelector(fields[i][0]);"
+        + "  if (!el) { return 'missing ' + fields[i][0]; }"
+        + "  elements.push(el);"
+        + "}"
+        + "var submit = document.querySelector(submitSelector);"
+        + "if (!submit) { return 'missing ' + submitSelector; }"
+        + "for (var j = 0; j < elements.length; j++) {"
+        + "  var field = elements[j];"
+        + "  var proto = field instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;"
+        + "  field.focus();"
+        + "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(field, fields[j][1]);"
+        + "  field.dispatchEvent(new Event('input', {bubbles: true}));"
+        + "  field.dispatchEvent(new Event('change', {bubbles: true}));"
+        + "  field.blur();"
+        + "}"
+        + "submit.click();"
+        + "return null;";
+    
     protected WebDriver driver;
-    protected WebDriverWait wait;
+    protected WaitEngine wait;
     
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        PageFactory.initElements(driver, this);
+        this.wait = new WaitEngine(driver);
+        PageObjectEngine.initElements(driver, this);
+    }
+    
+    /**
+     * Opens a URL and records its navigation timing (see {@link NavigationTimings}).
+     * 
+     * @param url URL to open
+     */
+    protected void navigateTo(String url) {
+        long start = System.nanoTime();
+        driver.get(url);
+        NavigationTimings.record(driver, url, System.nanoTime() - start);
     }
     
     /**
      * Waits for element to be visible.
+     * Element fields are waited for through their {@code @FindBy} locator, so the
+     * in-page strategy applies when {@code wait.strategy=in-page}; other elements
+     * are polled.
      * 
      * @param element WebElement to wait for
      */
     protected void waitForElementToBeVisible(WebElement element) {
-        wait.until(ExpectedConditions.visibilityOf(element));
+        By locator = PageObjectEngine.locatorOf(element);
+        if (locator != null) {
+            wait.untilVisible(locator);
+        } else {
+            wait.until("visibility", ExpectedConditions.visibilityOf(element));
+        }
     }
     
     /**
@@ -38,7 +93,78 @@ public abstract class BasePage {
      * @param element WebElement to wait for
      */
     protected void waitForElementToBeClickable(WebElement element) {
-        wait.until(ExpectedConditions.elementToBeClickable(element));
+        wait.until("clickable", ExpectedConditions.elementToBeClickable(element));
+    }
+    
+    /**
+     * Gets the locator declared by an element field's {@code @FindBy}.
+     * 
+     * @param element Element field
+     * @return Locator of the element
+     */
+    protected By locatorOf(WebElement element) {
+        By locator = PageObjectEngine.locatorOf(element);
+        if (locator == null) {
+            throw new IllegalArgumentException("Not a page element field: " + element);
+        }
+        return locator;
+    }
+    
+    /**
+     * Waits for whichever of several outcomes happens first.
+     * 
+     * @param name Race name used for metrics (e.g. "login-outcome")
+     * @param outcomes Outcomes and the conditions that detect them
+     * @param <K> Outcome type
+     * @return The outcome that happened first
+     * @throws org.openqa.selenium.TimeoutException if no outcome happens in time
+     */
+    protected <K> K waitForFirst(String name, Map<K, ? extends ExpectedCondition<?>> outcomes) {
+        return wait.untilFirst(name, outcomes);
+    }
+    
+    /**
+     * Checks if form flows should use {@link #fillAndSubmit(Map, By)}.
+     * 
+     * @return true if {@code interaction.mode=batched}
+     */
+    protected boolean isBatchedInteractionEnabled() {
+        return BATCHED_INTERACTIONS;
+    }
+    
+    /**
+     * Fills several fields and clicks the submit element in a single
+     * executeScript round trip. Values are set through the native value setter
+     * and input/change events are fired, so framework-bound forms see the change.
+     * No keystrokes are typed; use {@link #enterText(WebElement, String)} when
+     * realistic typing matters.
+     * 
+     * @param values Field locators and the values to set, in fill order
+     * @param submit Locator of the element to click once fields are filled
+     * @return true if the batch ran, false if a locator has no CSS form or an
+     *         element is not in the page yet (callers fall back to keystrokes)
+     */
+    protected boolean fillAndSubmit(Map<By, String> values, By submit) {
+        if (!(driver instanceof JavascriptExecutor executor)) {
+            return false;
+        }
+        List<List<String>> fields = new ArrayList<>();
+        for (Map.Entry<By, String> value : values.entrySet()) {
+            String selector = Locators.toCssSelector(value.getKey());
+            if (selector == null) {
+                return false;
+            }
+            fields.add(List.of(selector, value.getValue()));
+        }
+        String submitSelector = Locators.toCssSelector(submit);
+        if (submitSelector == null) {
+            return false;
+        }
+        try {
+            return executor.executeScript(FILL_AND_SUBMIT_SCRIPT, fields, submitSelector) == null;
+        } catch (WebDriverException e) {
+            return false;
+        }
     }
     
     /**
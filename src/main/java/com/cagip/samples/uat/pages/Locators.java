@@ -0,0 +1,32 @@
+package com.cagip.samples.uat.pages;
+
+import org.openqa.selenium.By;
+
+/**
+ * Helpers for working with locators inside the page (JavaScript) rather than over the wire.
+ */
+public final class Locators {
+    
+    private static final String CSS_SELECTOR = "css selector";
+    
+    private Locators() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Converts a locator to a CSS selector usable with document.querySelector.
+     * Works for id, name, class name, tag name and CSS locators.
+     * 
+     * @param locator Locator to convert
+     * @return CSS selector, or null if the locator has no CSS equivalent (XPath, link text)
+     */
+    public static String toCssSelector(By locator) {
+        if (locator instanceof By.Remotable remotable) {
+            By.Remotable.Parameters parameters = remotable.getRemoteParameters();
+            if (CSS_SELECTOR.equals(parameters.using())) {
+                return String.valueOf(parameters.value());
+            }
+        }
+        return null;
+    }
+}
@@ -3,6 +3,8 @@ package com.cagip.samples.uat.pages;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 /**
  * Page Object for the Logged In Successfully Page.
@@ -46,16 +48,33 @@ public class LoggedInSuccessfullyPage extends BasePage {
     
     /**
      * Checks if logout button is displayed.
+     * Returns as soon as either the logged-in page or a login error shows up.
      * 
      * @return true if logout button is displayed
      */
     public boolean isLogoutButtonDisplayed() {
-        try {
-            waitForElementToBeVisible(logoutButton);
-            return logoutButton.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return new LoginPage(driver).waitForLoginOutcome(this) == LoginOutcome.SUCCESS;
+    }
+    
+    /**
+     * Condition met once the logout button is visible.
+     * 
+     * @return Visibility condition of the logout button
+     */
+    ExpectedCondition<WebElement> logoutButtonVisible() {
+        return ExpectedConditions.visibilityOf(logoutButton);
+    }
+    
+    /**
+     * Checks, without waiting, that the loaded page is the logged-in page.
+     * Used right after navigating to it, when an expired session has already
+     * been redirected elsewhere.
+     * 
+     * @return true if the logged-in page and its logout button are shown
+     */
+    public boolean isSessionActive() {
+        return urlContains("logged-in-successfully")
+            && !driver.findElements(locatorOf(logoutButton)).isEmpty();
     }
     
     /**
@@ -0,0 +1,16 @@
+package com.cagip.samples.uat.pages;
+
+/**
+ * Possible results of submitting the login form.
+ * Used to wait for whichever result shows up first instead of waiting the
+ * full timeout for an element that will never appear
+ * (see {@link LoginPage#waitForLoginOutcome()}).
+ */
+public enum LoginOutcome {
+    
+    /** The logged-in page with its "Log out" link is displayed. */
+    SUCCESS,
+    
+    /** The login page shows its error banner. */
+    ERROR
+}
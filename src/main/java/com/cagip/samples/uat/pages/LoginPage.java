@@ -1,8 +1,16 @@
 package com.cagip.samples.uat.pages;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Page Object for the Login Page.
@@ -36,7 +44,7 @@ public class LoginPage extends BasePage {
      * Navigates to the login page.
      */
     public void navigateToLoginPage() {
-        driver.get(LOGIN_PAGE_URL);
+        navigateTo(LOGIN_PAGE_URL);
     }
     
     /**
@@ -66,28 +74,61 @@ public class LoginPage extends BasePage {
     
     /**
      * Performs complete login operation.
+     * In batched interaction mode the form is filled and submitted in one
+     * script call; otherwise (or if the batch cannot run) keystrokes are typed.
      * 
      * @param username Username to login with
      * @param password Password to login with
      */
     public void login(String username, String password) {
+        if (isBatchedInteractionEnabled()) {
+            Map<By, String> values = new LinkedHashMap<>();
+            values.put(locatorOf(usernameField), username);
+            values.put(locatorOf(passwordField), password);
+            if (fillAndSubmit(values, locatorOf(submitButton))) {
+                return;
+            }
+        }
         enterUsername(username);
         enterPassword(password);
         clickSubmit();
     }
     
+    /**
+     * Waits for the result of a login attempt: success page or error banner,
+     * whichever appears first.
+     * 
+     * @return Login outcome, or null if neither appeared before the timeout
+     */
+    public LoginOutcome waitForLoginOutcome() {
+        return waitForLoginOutcome(new LoggedInSuccessfullyPage(driver));
+    }
+    
+    /**
+     * Races the error banner of this page against the logout button of the logged-in page.
+     * 
+     * @param loggedInPage Logged-in page on the same driver
+     * @return Login outcome, or null if neither appeared before the timeout
+     */
+    LoginOutcome waitForLoginOutcome(LoggedInSuccessfullyPage loggedInPage) {
+        Map<LoginOutcome, ExpectedCondition<?>> outcomes = new EnumMap<>(LoginOutcome.class);
+        outcomes.put(LoginOutcome.SUCCESS, loggedInPage.logoutButtonVisible());
+        outcomes.put(LoginOutcome.ERROR, ExpectedConditions.visibilityOf(errorMessage));
+        try {
+            return waitForFirst("login-outcome", outcomes);
+        } catch (TimeoutException e) {
+            return null;
+        }
+    }
+    
     /**
      * Checks if error message is displayed.
+     * Returns as soon as either the error or the success page shows up.
      * 
      * @return true if error message is displayed
      */
     public boolean isErrorMessageDisplayed() {
-        try {
-            waitForElementToBeVisible(errorMessage);
-            return errorMessage.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return waitForLoginOutcome() == LoginOutcome.ERROR;
     }
     
     /**
@@ -0,0 +1,143 @@
+package com.cagip.samples.uat.pages;
+
+import com.cagip.samples.uat.metrics.Metrics;
+import com.cagip.samples.uat.metrics.Timer;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Navigation timing of the pages opened with {@link BasePage#navigateTo(String)}.
+ * After each navigation the browser's Navigation Timing entry is read: time to
+ * first byte, DOMContentLoaded and load, relative to the start of the navigation,
+ * plus the number of resources the page requested. Values go to the
+ * {@code page.navigation.*} metrics and are listed per thread for the scenario's
+ * report. Navigations are only measured between {@link #start()} and
+ * {@link #drain()}, so other page object users (such as benchmarks) don't pay for
+ * the extra script call; at most {@value #MAX_ENTRIES} are listed per scenario.
+ */
+public final class NavigationTimings {
+    
+    private static final String TIMING_SCRIPT =
+        "var p = window.performance;"
+        + "if (!p) { return null; }"
+        + "var resources = p.getEntriesByType ? p.getEntriesByType('resource').length : -1;"
+        + "var nav = p.getEntriesByType ? p.getEntriesByType('navigation')[0] : null;"
+        + "if (nav) {"
+        + "  return [nav.responseStart, nav.domContentLoadedEventEnd, nav.loadEventEnd, resources];"
+        + "}"
+        + "var t = p.timing, origin = t.navigationStart;"
+        + "return [t.responseStart - origin, t.domContentLoadedEventEnd - origin,"
+        + "  t.loadEventEnd > 0 ? t.loadEventEnd - origin : 0, resources];";
+    
+    static final int MAX_ENTRIES = 100;
+    
+    private static final ThreadLocal<Collected> COLLECTED = new ThreadLocal<>();
+    
+    private static final Timer NAVIGATION_TIMER = Metrics.timer("page.navigation.get");
+    private static final Timer TTFB_TIMER = Metrics.timer("page.navigation.ttfb");
+    private static final Timer DOM_CONTENT_LOADED_TIMER = Metrics.timer("page.navigation.dom.content.loaded");
+    private static final Timer LOAD_TIMER = Metrics.timer("page.navigation.load");
+    
+    private NavigationTimings() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Starts collecting the navigations of the current thread, dropping any
+     * left from a scenario that did not drain them.
+     */
+    public static void start() {
+        COLLECTED.set(new Collected());
+    }
+    
+    /**
+     * Records the timing of the navigation that just completed, if the current
+     * thread is collecting.
+     * A load time of 0 means the load event had not fired yet when
+     * {@code driver.get} returned (eager or none page load strategy).
+     * 
+     * @param driver Driver that navigated
+     * @param url Requested URL
+     * @param navigationNanos Time spent in {@code driver.get}, including the browser start
+     *        when the navigation was the first command of a lazily started browser
+     */
+    static void record(WebDriver driver, String url, long navigationNanos) {
+        Collected collected = COLLECTED.get();
+        if (collected == null) {
+            return;
+        }
+        NAVIGATION_TIMER.record(navigationNanos);
+        StringBuilder entry = new StringBuilder("Navigation to ").append(url).append(": ")
+            .append(TimeUnit.NANOSECONDS.toMillis(navigationNanos)).append(" ms");
+        
+        List<?> timing = null;
+        if (driver instanceof JavascriptExecutor executor) {
+            try {
+                timing = (List<?>) executor.executeScript(TIMING_SCRIPT);
+            } catch (WebDriverException | ClassCastException e) {
+                // Navigation Timing not available
+            }
+        }
+        if (timing != null && timing.size() == 4) {
+            long ttfb = millis(timing.get(0));
+            long domContentLoaded = millis(timing.get(1));
+            long load = millis(timing.get(2));
+            long resources = millis(timing.get(3));
+            TTFB_TIMER.record(TimeUnit.MILLISECONDS.toNanos(ttfb));
+            DOM_CONTENT_LOADED_TIMER.record(TimeUnit.MILLISECONDS.toNanos(domContentLoaded));
+            if (load > 0) {
+                LOAD_TIMER.record(TimeUnit.MILLISECONDS.toNanos(load));
+            }
+            if (resources >= 0) {
+                Metrics.add("page.navigation.requests", resources + 1);
+            }
+            entry.append(" (TTFB ").append(ttfb).append(" ms, DOMContentLoaded ").append(domContentLoaded)
+                .append(" ms, load ").append(load > 0 ? load + " ms" : "pending");
+            if (resources >= 0) {
+                entry.append(", ").append(resources + 1).append(" requests");
+            }
+            entry.append(')');
+        }
+        if (collected.entries.size() < MAX_ENTRIES) {
+            collected.entries.add(entry.toString());
+        } else {
+            collected.dropped++;
+        }
+    }
+    
+    /**
+     * Takes the navigations recorded on the current thread since {@link #start()}
+     * and stops collecting.
+     * 
+     * @return One line per navigation, oldest first, empty if not collecting
+     */
+    public static List<String> drain() {
+        Collected collected = COLLECTED.get();
+        COLLECTED.remove();
+        if (collected == null) {
+            return List.of();
+        }
+        if (collected.dropped > 0) {
+            collected.entries.add(collected.dropped + " more navigation(s) not listed");
+        }
+        return collected.entries;
+    }
+    
+    private static long millis(Object value) {
+        return value instanceof Number number ? Math.round(number.doubleValue()) : 0;
+    }
+    
+    /**
+     * Navigations listed for the current scenario.
+     */
+    private static final class Collected {
+        
+        private final List<String> entries = new ArrayList<>();
+        private int dropped;
+    }
+}
@@ -0,0 +1,175 @@
+package com.cagip.samples.uat.pages;
+
+import com.cagip.samples.uat.metrics.Metrics;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementListHandler;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Replacement for {@code PageFactory.initElements} with two levels of caching:
+ * <ul>
+ *     <li>the {@code @FindBy} metadata of a page class is scanned once per class,</li>
+ *     <li>each element field resolves its element once per page instance and keeps
+ *     the handle, looking it up again only when it goes stale.</li>
+ * </ul>
+ * Lookups performed and saved are counted in {@link Metrics}
+ * ({@code page.element.lookups}, {@code page.element.lookups.saved}, {@code page.element.stale}).
+ */
+public final class PageObjectEngine {
+    
+    private static final ClassValue<List<ElementField>> ELEMENT_FIELDS = new ClassValue<>() {
+        @Override
+        protected List<ElementField> computeValue(Class<?> pageClass) {
+            return scanElementFields(pageClass);
+        }
+    };
+    
+    private PageObjectEngine() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Injects caching element proxies into every {@code @FindBy} field of the page.
+     * 
+     * @param context Driver (or element) to search from
+     * @param page Page object to initialize
+     */
+    public static void initElements(SearchContext context, Object page) {
+        for (ElementField elementField : ELEMENT_FIELDS.get(page.getClass())) {
+            try {
+                elementField.field().set(page, elementField.createProxy(context));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot initialize field " + elementField.field(), e);
+            }
+        }
+    }
+    
+    /**
+     * Gets the locator behind an element created by this engine.
+     * 
+     * @param element Element field value
+     * @return Locator, or null if the element was not created by this engine
+     */
+    public static By locatorOf(WebElement element) {
+        if (Proxy.isProxyClass(element.getClass())
+                && Proxy.getInvocationHandler(element) instanceof CachingElementHandler handler) {
+            return handler.locator;
+        }
+        return null;
+    }
+    
+    private static List<ElementField> scanElementFields(Class<?> pageClass) {
+        List<ElementField> fields = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                boolean annotated = field.isAnnotationPresent(FindBy.class)
+                    || field.isAnnotationPresent(FindBys.class)
+                    || field.isAnnotationPresent(FindAll.class);
+                boolean element = field.getType() == WebElement.class;
+                boolean elementList = field.getType() == List.class;
+                if (!annotated || !(element || elementList)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Annotations annotations = new Annotations(field);
+                fields.add(new ElementField(field, annotations, annotations.buildBy(), elementList));
+            }
+        }
+        return Collections.unmodifiableList(fields);
+    }
+    
+    /**
+     * Metadata of one {@code @FindBy} field, computed once per page class.
+     */
+    private record ElementField(Field field, Annotations annotations, By locator, boolean list) {
+        
+        Object createProxy(SearchContext context) {
+            ClassLoader loader = field.getDeclaringClass().getClassLoader();
+            if (list) {
+                return Proxy.newProxyInstance(loader, new Class<?>[]{List.class},
+                    new LocatingElementListHandler(new DefaultElementLocator(context, annotations)));
+            }
+            return Proxy.newProxyInstance(loader, new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                new CachingElementHandler(context, locator));
+        }
+    }
+    
+    /**
+     * Resolves its element on first use and reuses the handle until it goes stale.
+     */
+    private static final class CachingElementHandler implements InvocationHandler {
+        
+        private final SearchContext context;
+        private final By locator;
+        private volatile WebElement element;
+        
+        CachingElementHandler(SearchContext context, By locator) {
+            this.context = context;
+            this.locator = locator;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "toString":
+                    return "Cached proxy element for: " + locator;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "getWrappedElement":
+                    return resolve();
+                default:
+                    break;
+            }
+            
+            if (element != null) {
+                Metrics.increment("page.element.lookups.saved");
+            }
+            try {
+                return method.invoke(resolve(), args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                    throw e.getCause();
+                }
+            }
+            
+            // The page re-rendered the element: look it up again and retry once
+            Metrics.increment("page.element.stale");
+            element = null;
+            try {
+                return method.invoke(resolve(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        
+        private WebElement resolve() {
+            WebElement resolved = element;
+            if (resolved == null) {
+                resolved = context.findElement(locator);
+                Metrics.increment("page.element.lookups");
+                element = resolved;
+            }
+            return resolved;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.cagip.samples.uat.pages;
+
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-scenario registry that builds page objects on first use.
+ * Meant to be held by step definition classes, which Cucumber creates once per scenario.
+ */
+public class PageRegistry {
+    
+    private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> pageClass) {
+            try {
+                return pageClass.getConstructor(WebDriver.class);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(pageClass.getName() + " has no public (WebDriver) constructor", e);
+            }
+        }
+    };
+    
+    private final WebDriver driver;
+    private final Map<Class<?>, BasePage> pages = new HashMap<>();
+    
+    public PageRegistry(WebDriver driver) {
+        this.driver = driver;
+    }
+    
+    /**
+     * Gets the page of the given type, creating it the first time it is requested.
+     * 
+     * @param pageClass Page object class
+     * @param <T> Page object type
+     * @return Page instance for this scenario
+     */
+    public <T extends BasePage> T get(Class<T> pageClass) {
+        return pageClass.cast(pages.computeIfAbsent(pageClass, this::create));
+    }
+    
+    private BasePage create(Class<?> pageClass) {
+        try {
+            return (BasePage) CONSTRUCTORS.get(pageClass).newInstance(driver);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Failed to create page " + pageClass.getSimpleName(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create page " + pageClass.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.cagip.samples.uat.pages;
+
+import com.cagip.samples.uat.metrics.Metrics;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Explicit-wait engine used by all page objects.
+ * Drivers are created without an implicit wait, so each poll costs a single
+ * WebDriver command. Timeout and polling interval are configured with the
+ * {@code wait.timeout.ms} and {@code wait.polling.ms} system properties.
+ * With {@code wait.strategy=in-page}, waits on CSS-compatible locators are
+ * resolved inside the browser by a MutationObserver in one round trip.
+ * Every wait is recorded in {@link Metrics} as {@code wait.<condition>}.
+ */
+public final class WaitEngine {
+    
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(Long.getLong("wait.timeout.ms", 10_000L));
+    public static final Duration DEFAULT_POLLING = Duration.ofMillis(Long.getLong("wait.polling.ms", 50L));
+    private static final boolean IN_PAGE_STRATEGY = "in-page".equalsIgnoreCase(
+        System.getProperty("wait.strategy", "polling")
+    );
+    
+    private static final String IN_PAGE_WAIT_SCRIPT =
+        "var selector = arguments[0], requireVisible = arguments[1], timeoutMs = arguments[2];"
+        + "var done = arguments[arguments.length - 1], finished = false, observer, timer;"
+        + "function ready() {"
+        + "  var el = document.querySelector(selector);"
+        + "  if (!el) { return false; }"
+        + "  if (!requireVisible) { return true; }"
+        + "  var style = window.getComputedStyle(el);"
+        + "  return style.display !== 'none' && style.visibility !== 'hidden' && el.getClientRects().length > 0;"
+        + "}"
+        + "function finish(result) {"
+        + "  if (finished) { return; }"
+        + "  finished = true;"
+        + "  if (observer) { observer.disconnect(); }"
+        + "  clearTimeout(timer);"
+        + "  done(result);"
+        + "}"
+        + "if (ready()) { finish(true); return; }"
+        + "observer = new MutationObserver(function () { if (ready()) { finish(true); } });"
+        + "observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true});"
+        + "timer = setTimeout(function () { finish(ready()); }, timeoutMs);";
+    
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final Duration polling;
+    
+    public WaitEngine(WebDriver driver) {
+        this(driver, DEFAULT_TIMEOUT, DEFAULT_POLLING);
+    }
+    
+    public WaitEngine(WebDriver driver, Duration timeout, Duration polling) {
+        this.driver = driver;
+        this.timeout = timeout;
+        this.polling = polling;
+    }
+    
+    /**
+     * Polls a condition until it returns a non-null, non-false value.
+     * 
+     * @param name Condition name used for metrics (e.g. "visibility")
+     * @param condition Condition to evaluate
+     * @param <T> Condition result type
+     * @return Condition result
+     * @throws TimeoutException if the condition is not met in time
+     */
+    public <T> T until(String name, ExpectedCondition<T> condition) {
+        return until(name, condition, timeout);
+    }
+    
+    /**
+     * Polls a condition with a specific timeout.
+     * 
+     * @param name Condition name used for metrics
+     * @param condition Condition to evaluate
+     * @param waitTimeout Maximum time to wait
+     * @param <T> Condition result type
+     * @return Condition result
+     * @throws TimeoutException if the condition is not met in time
+     */
+    public <T> T until(String name, ExpectedCondition<T> condition, Duration waitTimeout) {
+        long start = System.nanoTime();
+        try {
+            return new FluentWait<>(driver)
+                .withTimeout(waitTimeout)
+                .pollingEvery(polling)
+                .ignoring(NoSuchElementException.class)
+                .ignoring(StaleElementReferenceException.class)
+                .until(condition);
+        } finally {
+            Metrics.timer("wait." + name).recordSince(start);
+        }
+    }
+    
+    /**
+     * Races several outcomes and returns the first one whose condition is met.
+     * All conditions are evaluated on every poll, so an outcome that never
+     * happens costs nothing as soon as another one does.
+     * 
+     * @param name Race name used for metrics (e.g. "login-outcome")
+     * @param outcomes Outcomes and their conditions, evaluated in iteration order
+     * @param <K> Outcome type
+     * @return The outcome that happened first
+     * @throws TimeoutException if no outcome happens in time
+     */
+    public <K> K untilFirst(String name, Map<K, ? extends ExpectedCondition<?>> outcomes) {
+        return until(name, currentDriver -> {
+            for (Map.Entry<K, ? extends ExpectedCondition<?>> outcome : outcomes.entrySet()) {
+                Object result;
+                try {
+                    result = outcome.getValue().apply(currentDriver);
+                } catch (NoSuchElementException | StaleElementReferenceException e) {
+                    continue;
+                }
+                if (result != null && !Boolean.FALSE.equals(result)) {
+                    return outcome.getKey();
+                }
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Waits for the element matching the locator to be visible, using the
+     * in-page strategy when enabled and possible, polling otherwise.
+     * When the in-page wait cannot run to the end (navigation, script timeout),
+     * polling continues for what is left of the timeout, so a missing element
+     * always fails after one timeout.
+     * 
+     * @param locator Locator of the element
+     * @throws TimeoutException if the element is not visible in time
+     */
+    public void untilVisible(By locator) {
+        Duration remaining = timeout;
+        if (IN_PAGE_STRATEGY) {
+            long start = System.nanoTime();
+            Boolean visible = awaitInPage(locator, true);
+            if (Boolean.TRUE.equals(visible)) {
+                return;
+            }
+            if (Boolean.FALSE.equals(visible)) {
+                throw new TimeoutException("Element " + locator + " not visible after "
+                    + timeout.toMillis() + " ms (in-page wait)");
+            }
+            remaining = timeout.minusNanos(System.nanoTime() - start);
+            if (remaining.isNegative()) {
+                remaining = Duration.ZERO;
+            }
+        }
+        until("visibility", ExpectedConditions.visibilityOfElementLocated(locator), remaining);
+    }
+    
+    /**
+     * Waits inside the page for an element to appear (and optionally become
+     * visible) using a MutationObserver, in a single executeAsyncScript call.
+     * 
+     * @param locator Locator of the element, must have a CSS equivalent
+     * @param requireVisible true to also wait for the element to be visible
+     * @return true if the element is ready, false if it was not ready when the
+     *         timeout expired, null if the in-page wait could not be used or was
+     *         interrupted (callers fall back to polling)
+     */
+    public Boolean awaitInPage(By locator, boolean requireVisible) {
+        String selector = Locators.toCssSelector(locator);
+        if (selector == null || !(driver instanceof JavascriptExecutor executor)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = executor.executeAsyncScript(IN_PAGE_WAIT_SCRIPT, selector, requireVisible, timeout.toMillis());
+            return Boolean.TRUE.equals(result);
+        } catch (WebDriverException e) {
+            // Navigation or script timeout interrupted the observer
+            return null;
+        } finally {
+            Metrics.timer("wait.in-page").recordSince(start);
+        }
+    }
+}
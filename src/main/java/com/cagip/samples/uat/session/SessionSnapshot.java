@@ -0,0 +1,105 @@
+package com.cagip.samples.uat.session;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cookies and web storage of a logged-in browser, taken right after login,
+ * that can be put back into another (or a reset) browser session.
+ */
+final class SessionSnapshot {
+    
+    private static final String CAPTURE_STORAGE_SCRIPT =
+        "var dump = function (storage) {"
+        + "  var entries = {};"
+        + "  for (var i = 0; i < storage.length; i++) { var key = storage.key(i); entries[key] = storage.getItem(key); }"
+        + "  return entries;"
+        + "};"
+        + "return [dump(window.localStorage), dump(window.sessionStorage)];";
+    
+    private static final String RESTORE_STORAGE_SCRIPT =
+        "var local = arguments[0], session = arguments[1];"
+        + "for (var key in local) { window.localStorage.setItem(key, local[key]); }"
+        + "for (var key in session) { window.sessionStorage.setItem(key, session[key]); }";
+    
+    private final String originUrl;
+    private final String landingUrl;
+    private final Set<Cookie> cookies;
+    private final Map<String, Object> localStorage;
+    private final Map<String, Object> sessionStorage;
+    private final long capturedNanos;
+    
+    private SessionSnapshot(String landingUrl, Set<Cookie> cookies,
+                            Map<String, Object> localStorage, Map<String, Object> sessionStorage) {
+        this.originUrl = URI.create(landingUrl).resolve("/").toString();
+        this.landingUrl = landingUrl;
+        this.cookies = cookies;
+        this.localStorage = localStorage;
+        this.sessionStorage = sessionStorage;
+        this.capturedNanos = System.nanoTime();
+    }
+    
+    /**
+     * Takes the cookies and web storage of the page currently loaded.
+     * Storage is left empty when the driver cannot run scripts.
+     * 
+     * @param driver Logged-in driver
+     * @return Snapshot
+     */
+    @SuppressWarnings("unchecked")
+    static SessionSnapshot capture(WebDriver driver) {
+        Map<String, Object> local = Map.of();
+        Map<String, Object> session = Map.of();
+        if (driver instanceof JavascriptExecutor executor) {
+            try {
+                List<Map<String, Object>> storage = (List<Map<String, Object>>) executor.executeScript(CAPTURE_STORAGE_SCRIPT);
+                local = Map.copyOf(storage.get(0));
+                session = Map.copyOf(storage.get(1));
+            } catch (WebDriverException | ClassCastException e) {
+                // No script support: cookies only
+            }
+        }
+        return new SessionSnapshot(driver.getCurrentUrl(), Set.copyOf(driver.manage().getCookies()), local, session);
+    }
+    
+    /**
+     * Puts the snapshot into a browser and opens the page that followed login.
+     * Cookies and storage can only be set on a page of the same origin, so the
+     * origin root is loaded first. Cookies are added without their domain, which
+     * browsers reject for {@code localhost}; they apply to the loaded host.
+     * 
+     * @param driver Driver to restore into
+     */
+    void restore(WebDriver driver) {
+        driver.get(originUrl);
+        for (Cookie cookie : cookies) {
+            driver.manage().addCookie(new Cookie.Builder(cookie.getName(), cookie.getValue())
+                .path(cookie.getPath())
+                .expiresOn(cookie.getExpiry())
+                .isSecure(cookie.isSecure())
+                .isHttpOnly(cookie.isHttpOnly())
+                .sameSite(cookie.getSameSite())
+                .build());
+        }
+        if ((!localStorage.isEmpty() || !sessionStorage.isEmpty()) && driver instanceof JavascriptExecutor executor) {
+            executor.executeScript(RESTORE_STORAGE_SCRIPT, localStorage, sessionStorage);
+        }
+        driver.get(landingUrl);
+    }
+    
+    /**
+     * Gets the age of the snapshot.
+     * 
+     * @return Nanoseconds since capture
+     */
+    long getAgeNanos() {
+        return System.nanoTime() - capturedNanos;
+    }
+}
@@ -0,0 +1,104 @@
+package com.cagip.samples.uat.session;
+
+import com.cagip.samples.uat.metrics.Metrics;
+import com.cagip.samples.uat.metrics.Timer;
+import com.cagip.samples.uat.pages.LoggedInSuccessfullyPage;
+import com.cagip.samples.uat.pages.LoginOutcome;
+import com.cagip.samples.uat.pages.LoginPage;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logged-in state shared by every scenario of the run, per user.
+ * The first scenario that needs a user logs in through the UI and the cookies
+ * and web storage of the browser are kept as a {@link SessionSnapshot}; later
+ * scenarios, on any thread and in new or reset browsers, get the snapshot
+ * injected instead of going through the login form.
+ * A snapshot is used for {@code session.cache.ttl.s} seconds (default 600) and is
+ * checked against the logged-in page every time it is injected; an expired or
+ * rejected snapshot is replaced by a new UI login.
+ * The cache can be turned off with {@code session.cache.enabled=false}.
+ */
+public final class SessionStateCache {
+    
+    private static final boolean ENABLED = Boolean.parseBoolean(
+        System.getProperty("session.cache.enabled", "true")
+    );
+    private static final long TTL_NANOS = Duration.ofSeconds(
+        Long.getLong("session.cache.ttl.s", 600L)
+    ).toNanos();
+    
+    private static final Map<String, SessionSnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+    
+    private static final Timer UI_LOGIN_TIMER = Metrics.timer("session.login.ui");
+    private static final Timer RESTORE_TIMER = Metrics.timer("session.login.restore");
+    
+    private SessionStateCache() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Makes the browser logged in as the given user, leaving it on the logged-in page.
+     * Two scenarios starting at the same time for a user not cached yet both
+     * log in through the UI; the last snapshot wins.
+     * 
+     * @param driver Driver of the current scenario
+     * @param username User to log in as
+     * @param password Password of the user, used for UI logins
+     * @throws IllegalStateException if the UI login does not succeed
+     */
+    public static void logIn(WebDriver driver, String username, String password) {
+        if (ENABLED && restore(driver, username)) {
+            return;
+        }
+        
+        long start = System.nanoTime();
+        LoginPage loginPage = new LoginPage(driver);
+        loginPage.navigateToLoginPage();
+        loginPage.login(username, password);
+        if (loginPage.waitForLoginOutcome() != LoginOutcome.SUCCESS) {
+            throw new IllegalStateException("Could not log in as " + username);
+        }
+        UI_LOGIN_TIMER.recordSince(start);
+        if (ENABLED) {
+            SNAPSHOTS.put(username, SessionSnapshot.capture(driver));
+        }
+    }
+    
+    /**
+     * Injects the cached snapshot of a user, if there is a valid one.
+     * 
+     * @return true if the browser is now logged in
+     */
+    private static boolean restore(WebDriver driver, String username) {
+        SessionSnapshot snapshot = SNAPSHOTS.get(username);
+        if (snapshot == null) {
+            Metrics.increment("session.cache.miss");
+            return false;
+        }
+        if (snapshot.getAgeNanos() > TTL_NANOS) {
+            SNAPSHOTS.remove(username, snapshot);
+            Metrics.increment("session.cache.expired");
+            return false;
+        }
+        
+        long start = System.nanoTime();
+        try {
+            snapshot.restore(driver);
+            if (new LoggedInSuccessfullyPage(driver).isSessionActive()) {
+                RESTORE_TIMER.recordSince(start);
+                Metrics.increment("session.cache.hit");
+                return true;
+            }
+        } catch (WebDriverException e) {
+            System.out.println("Could not restore session of " + username + ": " + e.getMessage());
+        }
+        SNAPSHOTS.remove(username, snapshot);
+        Metrics.increment("session.cache.rejected");
+        return false;
+    }
+}
@@ -0,0 +1,236 @@
+package com.cagip.samples.uat.history;
+
+import com.cagip.samples.uat.stub.LoginAppStub;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Fingerprints of the scenarios that passed, used to skip scenarios whose
+ * inputs have not changed since (incremental execution, {@code result.cache.enabled=true}).
+ * <p>
+ * A scenario's fingerprint covers its feature file, the bytecode of the page
+ * objects and framework classes, everything else on the test classpath (glue,
+ * stub, test data; other feature files excepted), the target application (the
+ * configured {@code login.page.url} or the embedded stub), the browser,
+ * remote/Docker mode and profile, the settings that change how pages are driven
+ * and the application version given with {@code app.version}. Whole files and
+ * packages are hashed rather than just what one scenario touches, so a code or
+ * configuration change can only cause extra runs. Changes of a remote application
+ * are only seen through {@code app.version}.
+ * Stored as JSON (default {@code .uat-cache/results.json}, overridable with {@code result.cache}).
+ * One instance is shared per JVM by the discovery filter and the reporting plugin.
+ */
+public final class ResultCache {
+    
+    public static final boolean ENABLED = Boolean.getBoolean("result.cache.enabled");
+    
+    private static final Path LOCATION = Path.of(System.getProperty("result.cache", ".uat-cache/results.json"));
+    private static final String BASE_PACKAGE = "com/cagip/samples/uat/";
+    private static final String FEATURES = "features/";
+    private static final List<String> SETTINGS = List.of(
+        "browser", "browser.profile", "browser.http.javascript", "remote.browser", "auto.provisioned.browser",
+        "network.block.patterns", "stub.server.enabled", "wait.strategy", "interaction.mode",
+        "session.cache.enabled", "app.version");
+    private static volatile ResultCache instance;
+    
+    private final Map<String, String> passed = new ConcurrentHashMap<>();
+    private final Map<String, String> featureHashes = new ConcurrentHashMap<>();
+    private final Set<String> skipped = ConcurrentHashMap.newKeySet();
+    private final Set<String> discovered = ConcurrentHashMap.newKeySet();
+    private final String environmentHash;
+    
+    private ResultCache() {
+        StringBuilder environment = new StringBuilder(codeHash());
+        String configuredUrl = LoginAppStub.getConfiguredLoginPageUrl();
+        boolean stubServing = !configuredUrl.equals(System.getProperty("login.page.url", ""));
+        environment.append("|login.page.url=").append(configuredUrl).append("|stub=").append(stubServing);
+        for (String setting : SETTINGS) {
+            environment.append('|').append(setting).append('=').append(System.getProperty(setting, ""));
+        }
+        this.environmentHash = sha256(environment.toString().getBytes(StandardCharsets.UTF_8));
+        load();
+    }
+    
+    /**
+     * Gets the cache of this JVM, loading it on first use.
+     * 
+     * @return Result cache
+     */
+    public static ResultCache get() {
+        if (instance == null) {
+            synchronized (ResultCache.class) {
+                if (instance == null) {
+                    instance = new ResultCache();
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Checks whether a discovered scenario can be skipped, and counts it for the hit rate.
+     * 
+     * @param key Scenario key
+     * @return true if the scenario passed with the same fingerprint
+     */
+    public boolean shouldSkip(String key) {
+        discovered.add(key);
+        String fingerprint = fingerprint(key);
+        if (fingerprint != null && fingerprint.equals(passed.get(key))) {
+            skipped.add(key);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Records the result of a scenario that ran.
+     * 
+     * @param key Scenario key
+     * @param success true if it passed; failures are always run again
+     */
+    public void record(String key, boolean success) {
+        String fingerprint = success ? fingerprint(key) : null;
+        if (fingerprint != null) {
+            passed.put(key, fingerprint);
+        } else {
+            passed.remove(key);
+        }
+    }
+    
+    /**
+     * Summarizes the cache hits of this run.
+     * 
+     * @return Discovered, skipped and hit rate figures
+     */
+    public Map<String, Object> summary() {
+        int total = discovered.size();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("discovered", total);
+        summary.put("skipped", skipped.size());
+        summary.put("executed", total - skipped.size());
+        summary.put("hitRate", total == 0 ? 0.0 : Math.round(1000.0 * skipped.size() / total) / 1000.0);
+        summary.put("skippedScenarios", skipped.stream().sorted().toList());
+        summary.put("appVersion", System.getProperty("app.version", ""));
+        return summary;
+    }
+    
+    public void save() {
+        try {
+            if (LOCATION.getParent() != null) {
+                Files.createDirectories(LOCATION.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(LOCATION)) {
+                writer.write(new Json().toJson(new TreeMap<>(passed)));
+            }
+        } catch (IOException e) {
+            System.out.println("Could not save result cache " + LOCATION + ": " + e.getMessage());
+        }
+    }
+    
+    private void load() {
+        if (!Files.isRegularFile(LOCATION)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(LOCATION)) {
+            Map<String, Object> json = new Json().toType(reader, Json.MAP_TYPE);
+            json.forEach((key, value) -> passed.put(key, String.valueOf(value)));
+        } catch (IOException | JsonException e) {
+            System.out.println("Ignoring unreadable result cache " + LOCATION + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Computes the fingerprint of a scenario.
+     * 
+     * @param key Scenario key ({@code features/login.feature:15})
+     * @return Fingerprint, or null if the feature file cannot be read
+     */
+    private String fingerprint(String key) {
+        String feature = key.substring(0, key.lastIndexOf(':'));
+        String featureHash = featureHashes.computeIfAbsent(feature, ResultCache::featureHash);
+        return featureHash.isEmpty() ? null : sha256((environmentHash + "|" + featureHash + "|" + key).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String featureHash(String feature) {
+        try (InputStream in = ResultCache.class.getClassLoader().getResourceAsStream(feature)) {
+            return in == null ? "" : sha256(in.readAllBytes());
+        } catch (IOException e) {
+            return "";
+        }
+    }
+    
+    /**
+     * Hashes the bytecode of the framework classes and the whole test classpath
+     * directory, resources included. Feature files are left out: each scenario
+     * hashes its own.
+     */
+    private static String codeHash() {
+        StringBuilder hashes = new StringBuilder();
+        hashFiles(codeRoot("com.cagip.samples.uat.driver.DriverFactory"),
+            name -> name.startsWith(BASE_PACKAGE) && name.endsWith(".class"), hashes);
+        hashFiles(codeRoot("com.cagip.samples.uat.steps.LoginStepDefinitions"),
+            name -> !name.startsWith(FEATURES), hashes);
+        return sha256(hashes.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Path codeRoot(String className) {
+        try {
+            return Path.of(Class.forName(className, false, ResultCache.class.getClassLoader())
+                .getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (ClassNotFoundException | URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate classes of " + className, e);
+        }
+    }
+    
+    private static void hashFiles(Path root, Predicate<String> included, StringBuilder hashes) {
+        try {
+            if (!Files.isDirectory(root)) {
+                // Packaged classes: the archive stands for its content
+                hashes.append(root.getFileName()).append('=').append(sha256(Files.readAllBytes(root))).append('\n');
+                return;
+            }
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(root)) {
+                files = walk.filter(Files::isRegularFile).sorted().toList();
+            }
+            for (Path file : files) {
+                String name = root.relativize(file).toString().replace('\\', '/');
+                if (included.test(name)) {
+                    hashes.append(name).append('=').append(sha256(Files.readAllBytes(file))).append('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.cagip.samples.uat.history;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Expected duration of each scenario, used to schedule and split the suite.
+ * Estimates are the median of the {@link TimingHistory}; when the history has
+ * no scenarios yet, the durations of the last report event stream
+ * ({@code timing.events}, default {@code target/cucumber-reports/events.ndjson})
+ * are used instead. Durations are in microseconds.
+ */
+public final class ScenarioDurations {
+    
+    private static final Path EVENT_STREAM = Path.of(
+        System.getProperty("timing.events", "target/cucumber-reports/events.ndjson"));
+    
+    private final Map<String, Long> estimates;
+    private final String origin;
+    private final long defaultEstimate;
+    
+    private ScenarioDurations(Map<String, Long> estimates, String origin) {
+        this.estimates = estimates;
+        this.origin = origin;
+        this.defaultEstimate = TimingHistory.percentile(
+            estimates.values().stream().mapToLong(Long::longValue).toArray(), 50);
+    }
+    
+    /**
+     * Loads scenario estimates from the timing history, or from the last report event stream.
+     * 
+     * @return Estimates, empty if neither source has scenario durations
+     */
+    public static ScenarioDurations load() {
+        TimingHistory history = TimingHistory.load();
+        Map<String, Long> estimates = new HashMap<>();
+        history.samples(TimingHistory.SCENARIOS).keySet()
+            .forEach(key -> estimates.put(key, history.median(TimingHistory.SCENARIOS, key)));
+        if (!estimates.isEmpty()) {
+            return new ScenarioDurations(estimates, "timing history");
+        }
+        return new ScenarioDurations(fromEventStream(EVENT_STREAM), EVENT_STREAM.toString());
+    }
+    
+    /**
+     * Reads scenario durations from a report event stream ({@code events.ndjson}).
+     * The stream is read line by line; a truncated last line is ignored.
+     * 
+     * @param stream Event stream written by the streaming report plugin
+     * @return Durations by scenario key, empty if the stream is missing or unreadable
+     */
+    public static Map<String, Long> fromEventStream(Path stream) {
+        Map<String, Long> durations = new HashMap<>();
+        if (!Files.isRegularFile(stream)) {
+            return durations;
+        }
+        Json json = new Json();
+        try (BufferedReader reader = Files.newBufferedReader(stream, StandardCharsets.UTF_8)) {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                if (!text.contains("\"testCaseFinished\"")) {
+                    continue;
+                }
+                Map<String, Object> event;
+                try {
+                    event = json.toType(text, Json.MAP_TYPE);
+                } catch (JsonException e) {
+                    continue;
+                }
+                if (!"testCaseFinished".equals(event.get("type")) || event.get("uri") == null) {
+                    continue;
+                }
+                String key = ScenarioKey.of(URI.create(String.valueOf(event.get("uri"))), ((Number) event.get("line")).intValue());
+                durations.put(key, ((Number) event.getOrDefault("durationNanos", 0)).longValue() / 1_000);
+            }
+        } catch (IOException | ClassCastException | IllegalArgumentException | NullPointerException e) {
+            System.out.println("Ignoring unreadable report stream " + stream + ": " + e.getMessage());
+        }
+        return durations;
+    }
+    
+    /**
+     * Gets the expected duration of a scenario.
+     * 
+     * @param key Scenario key
+     * @return Expected duration in microseconds, or -1 if unknown
+     */
+    public long estimate(String key) {
+        return estimates.getOrDefault(key, -1L);
+    }
+    
+    /**
+     * Gets the estimate used for scenarios without history: the median of known scenarios.
+     * 
+     * @return Default estimate in microseconds, 0 if nothing is known
+     */
+    public long defaultEstimate() {
+        return defaultEstimate;
+    }
+    
+    public boolean isEmpty() {
+        return estimates.isEmpty();
+    }
+    
+    /**
+     * Describes where the estimates come from.
+     * 
+     * @return Estimate source
+     */
+    public String getOrigin() {
+        return origin;
+    }
+    
+    /**
+     * Simulates list scheduling: each duration, in order, goes to the worker
+     * that becomes free first. This is how a pool of workers picks up a queue.
+     * 
+     * @param durations Durations in scheduling order
+     * @param workers Number of workers
+     * @return Finish time of the busiest worker
+     */
+    public static long makespan(List<Long> durations, int workers) {
+        long[] loads = new long[Math.max(1, workers)];
+        PriorityQueue<Integer> free = new PriorityQueue<>((a, b) -> Long.compare(loads[a], loads[b]));
+        for (int worker = 0; worker < loads.length; worker++) {
+            free.add(worker);
+        }
+        for (long duration : durations) {
+            int worker = free.poll();
+            loads[worker] += duration;
+            free.add(worker);
+        }
+        return Arrays.stream(loads).max().orElse(0);
+    }
+}
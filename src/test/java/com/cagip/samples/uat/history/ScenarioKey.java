@@ -0,0 +1,51 @@
+package com.cagip.samples.uat.history;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Stable identifier of a scenario (or Scenario Outline example row) across runs:
+ * the feature path relative to the resources root, plus the line number.
+ * Example: {@code features/login.feature:15}.
+ */
+public final class ScenarioKey {
+    
+    private static final String RESOURCES_ROOT = "src/test/resources/";
+    
+    private ScenarioKey() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Builds the key of a scenario from its feature URI and line.
+     * 
+     * @param featureUri Feature URI ({@code file:} or {@code classpath:})
+     * @param line Line of the scenario or example row
+     * @return Scenario key
+     */
+    public static String of(URI featureUri, int line) {
+        String path = "file".equals(featureUri.getScheme())
+            ? Path.of(featureUri).toString()
+            : featureUri.getSchemeSpecificPart();
+        return of(path, line);
+    }
+    
+    /**
+     * Builds the key of a scenario from its feature path and line.
+     * 
+     * @param featurePath Feature file path, absolute or relative
+     * @param line Line of the scenario or example row
+     * @return Scenario key
+     */
+    public static String of(String featurePath, int line) {
+        String normalized = featurePath.replace('\\', '/');
+        int resourcesIndex = normalized.indexOf(RESOURCES_ROOT);
+        if (resourcesIndex >= 0) {
+            normalized = normalized.substring(resourcesIndex + RESOURCES_ROOT.length());
+        }
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        return normalized + ":" + line;
+    }
+}
@@ -0,0 +1,171 @@
+package com.cagip.samples.uat.history;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Durations of steps, hooks and scenarios kept across runs.
+ * Stored as JSON (default {@code .uat-cache/timings.json}, overridable with
+ * {@code timing.history}) so it can be cached between CI pipelines.
+ * Only the most recent {@value #MAX_SAMPLES} samples per key are kept.
+ * Durations are in microseconds.
+ */
+public final class TimingHistory {
+    
+    public static final String STEPS = "steps";
+    public static final String HOOKS = "hooks";
+    public static final String SCENARIOS = "scenarios";
+    
+    static final int MAX_SAMPLES = 200;
+    private static final Path DEFAULT_LOCATION = Path.of(System.getProperty("timing.history", ".uat-cache/timings.json"));
+    
+    private final Map<String, Map<String, long[]>> sections = new TreeMap<>();
+    
+    private TimingHistory() {
+    }
+    
+    /**
+     * Loads the history from its default location.
+     * 
+     * @return History, empty if the file does not exist or cannot be read
+     */
+    public static TimingHistory load() {
+        return load(DEFAULT_LOCATION);
+    }
+    
+    /**
+     * Loads the history from a file.
+     * 
+     * @param file History file
+     * @return History, empty if the file does not exist or cannot be read
+     */
+    public static TimingHistory load(Path file) {
+        TimingHistory history = new TimingHistory();
+        if (!Files.isRegularFile(file)) {
+            return history;
+        }
+        try (Reader reader = Files.newBufferedReader(file)) {
+            Map<String, Object> json = new Json().toType(reader, Json.MAP_TYPE);
+            json.forEach((section, entries) -> {
+                if (entries instanceof Map<?, ?> samplesByKey) {
+                    samplesByKey.forEach((key, samples) -> history.section(section)
+                        .put(String.valueOf(key), toLongs((List<?>) samples)));
+                }
+            });
+        } catch (IOException | JsonException | ClassCastException e) {
+            System.out.println("Ignoring unreadable timing history " + file + ": " + e.getMessage());
+        }
+        return history;
+    }
+    
+    /**
+     * Writes the history to its default location.
+     */
+    public void save() {
+        save(DEFAULT_LOCATION);
+    }
+    
+    /**
+     * Writes the history to a file.
+     * 
+     * @param file History file
+     */
+    public void save(Path file) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        sections.forEach((section, samplesByKey) -> {
+            Map<String, Object> entries = new TreeMap<>();
+            samplesByKey.forEach((key, samples) -> entries.put(key, Arrays.stream(samples).boxed().toList()));
+            json.put(section, entries);
+        });
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                writer.write(new Json().toJson(json));
+            }
+        } catch (IOException e) {
+            System.out.println("Could not save timing history " + file + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Appends new samples to a key, dropping the oldest beyond the retention limit.
+     * 
+     * @param section Section ({@link #STEPS}, {@link #HOOKS}, {@link #SCENARIOS})
+     * @param key Step pattern, hook location or scenario key
+     * @param newSamples Durations in microseconds
+     */
+    public void append(String section, String key, long[] newSamples) {
+        long[] previous = section(section).getOrDefault(key, new long[0]);
+        long[] merged = Arrays.copyOf(previous, previous.length + newSamples.length);
+        System.arraycopy(newSamples, 0, merged, previous.length, newSamples.length);
+        if (merged.length > MAX_SAMPLES) {
+            merged = Arrays.copyOfRange(merged, merged.length - MAX_SAMPLES, merged.length);
+        }
+        section(section).put(key, merged);
+    }
+    
+    /**
+     * Gets every key and its samples in a section.
+     * 
+     * @param section Section name
+     * @return Samples by key (microseconds)
+     */
+    public Map<String, long[]> samples(String section) {
+        return section(section);
+    }
+    
+    /**
+     * Gets the median duration of a key.
+     * 
+     * @param section Section name
+     * @param key Entry key
+     * @return Median in microseconds, or -1 if there is no history for the key
+     */
+    public long median(String section, String key) {
+        long[] samples = section(section).get(key);
+        return samples == null || samples.length == 0 ? -1 : percentile(samples, 50);
+    }
+    
+    /**
+     * Nearest-rank percentile.
+     * 
+     * @param samples Samples (not modified)
+     * @param percentile Percentile between 0 and 100
+     * @return Percentile value, 0 for no samples
+     */
+    public static long percentile(long[] samples, double percentile) {
+        if (samples.length == 0) {
+            return 0;
+        }
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+    }
+    
+    private Map<String, long[]> section(String name) {
+        return sections.computeIfAbsent(name, key -> new TreeMap<>());
+    }
+    
+    private static long[] toLongs(List<?> values) {
+        List<Long> longs = new ArrayList<>();
+        for (Object value : values) {
+            longs.add(((Number) value).longValue());
+        }
+        return longs.stream().mapToLong(Long::longValue).toArray();
+    }
+}
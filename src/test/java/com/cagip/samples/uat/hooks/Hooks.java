@@ -1,20 +1,40 @@
 package com.cagip.samples.uat.hooks;
 
+import com.cagip.samples.uat.driver.CommandProfiler;
 import com.cagip.samples.uat.driver.DriverFactory;
+import com.cagip.samples.uat.pages.NavigationTimings;
 import io.cucumber.java.After;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Cucumber hooks for setup and teardown operations.
  * Manages WebDriver lifecycle across scenarios.
+ * The browser is started lazily by the first step that uses it, so scenarios
+ * that never touch the browser never start one.
+ * Failure screenshots are written to disk by {@link ScreenshotPipeline} and
+ * linked from the report instead of being embedded in it.
+ * The navigation timings of the scenario's pages are logged to the report.
  */
 public class Hooks {
     
-    private WebDriver driver;
+    private static final boolean SCREENSHOT_ON_STEP_FAILURE = Boolean.parseBoolean(
+        System.getProperty("screenshot.on.step.failure", "true")
+    );
+    private static final Path REPORT_DIR = Path.of("target/cucumber-reports");
+    private static final AtomicInteger SCREENSHOT_COUNTER = new AtomicInteger();
+    
+    private boolean screenshotTaken;
     
     @Before
     public void setUp(Scenario scenario) {
@@ -24,6 +44,7 @@ public class Hooks {
         String autoProvisioned = System.getProperty("auto.provisioned.browser", "false");
         
         System.out.println("Browser selected: " + browser);
+        System.out.println("Browser profile: " + System.getProperty("browser.profile", "realistic"));
         if (!remoteBrowser.isEmpty()) {
             System.out.println("Using remote browser at: " + remoteBrowser);
         }
@@ -31,21 +52,67 @@ public class Hooks {
             System.out.println("Using Docker-provisioned browser");
         }
         
-        // Initialize driver through singleton
-        driver = DriverFactory.getDriver();
+        CommandProfiler.startScenario(scenario.getName());
+        NavigationTimings.start();
+    }
+    
+    @AfterStep
+    public void afterStep(Scenario scenario) {
+        // Capture the page as it was when the step failed
+        if (SCREENSHOT_ON_STEP_FAILURE && scenario.isFailed()) {
+            captureScreenshot(scenario);
+        }
     }
     
     @After
     public void tearDown(Scenario scenario) {
-        // Take screenshot if scenario failed
-        if (scenario.isFailed() && DriverFactory.isDriverInitialized()) {
-            byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-            scenario.attach(screenshot, "image/png", "Screenshot on failure");
+        // Take screenshot if scenario failed and no step captured one (e.g. failure in a hook)
+        if (scenario.isFailed()) {
+            captureScreenshot(scenario);
         }
         
         System.out.println("Scenario finished: " + scenario.getName() + " - Status: " + scenario.getStatus());
         
-        // Quit driver after all scenarios
-        DriverFactory.quitDriver();
+        String budgetViolation = CommandProfiler.endScenario();
+        
+        List<String> navigations = NavigationTimings.drain();
+        if (!navigations.isEmpty()) {
+            scenario.log(String.join("\n", navigations));
+        }
+        
+        // Quit this scenario's driver, or reset it for the next scenario when reuse is enabled
+        DriverFactory.releaseDriver(scenario.isFailed());
+        
+        if (budgetViolation != null) {
+            throw new AssertionError(budgetViolation);
+        }
+    }
+    
+    /**
+     * Takes one screenshot per scenario and links it from the report.
+     * 
+     * @param scenario Current scenario
+     */
+    private void captureScreenshot(Scenario scenario) {
+        if (screenshotTaken || !DriverFactory.isDriverInitialized()) {
+            return;
+        }
+        screenshotTaken = true;
+        WebDriver driver = DriverFactory.getDriver();
+        if (!(driver instanceof TakesScreenshot camera)) {
+            return;
+        }
+        try {
+            byte[] screenshot = camera.getScreenshotAs(OutputType.BYTES);
+            String baseName = scenario.getName().replaceAll("[^A-Za-z0-9]+", "_")
+                + "-" + SCREENSHOT_COUNTER.incrementAndGet();
+            Path image = ScreenshotPipeline.submit(screenshot, baseName);
+            String link = image.startsWith(REPORT_DIR)
+                ? REPORT_DIR.relativize(image).toString().replace('\\', '/')
+                : image.toAbsolutePath().toUri().toString();
+            scenario.attach(link, "text/uri-list", "Screenshot on failure");
+        } catch (WebDriverException | IOException e) {
+            System.out.println("Could not capture screenshot: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
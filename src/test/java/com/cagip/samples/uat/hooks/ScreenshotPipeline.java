@@ -0,0 +1,139 @@
+package com.cagip.samples.uat.hooks;
+
+import com.cagip.samples.uat.metrics.Metrics;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores failure screenshots on disk and shrinks them off the test thread.
+ * The raw PNG is written synchronously (one fast file write), then a
+ * background executor downscales it and re-encodes it as JPEG.
+ * The work queue is bounded: when it is full the capturing thread runs the
+ * compression itself, which throttles producers instead of growing memory.
+ * <p>
+ * Configuration: {@code screenshot.dir} (default {@code target/cucumber-reports/screenshots}),
+ * {@code screenshot.max.width} (default 1280), {@code screenshot.jpeg.quality} (default 0.7),
+ * {@code screenshot.queue.size} (default 16), {@code screenshot.keep.raw} (default false).
+ */
+final class ScreenshotPipeline {
+    
+    static final Path SCREENSHOT_DIR = Path.of(System.getProperty("screenshot.dir", "target/cucumber-reports/screenshots"));
+    private static final int MAX_WIDTH = Integer.getInteger("screenshot.max.width", 1280);
+    private static final float JPEG_QUALITY = Float.parseFloat(System.getProperty("screenshot.jpeg.quality", "0.7"));
+    private static final boolean KEEP_RAW = Boolean.getBoolean("screenshot.keep.raw");
+    
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+        1, 2, 30, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(Integer.getInteger("screenshot.queue.size", 16)),
+        runnable -> {
+            Thread thread = new Thread(runnable, "screenshot-compressor");
+            thread.setDaemon(true);
+            return thread;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy()
+    );
+    
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ScreenshotPipeline::drain, "screenshot-drain"));
+    }
+    
+    private ScreenshotPipeline() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Stores a screenshot and schedules its compression.
+     * 
+     * @param png Raw PNG bytes from the driver
+     * @param baseName File name without extension
+     * @return Path of the compressed image the report should link to
+     * @throws IOException if the raw screenshot cannot be written
+     */
+    static Path submit(byte[] png, String baseName) throws IOException {
+        Files.createDirectories(SCREENSHOT_DIR);
+        Path raw = SCREENSHOT_DIR.resolve(baseName + ".png");
+        Path compressed = SCREENSHOT_DIR.resolve(baseName + ".jpg");
+        Files.write(raw, png);
+        EXECUTOR.execute(() -> compress(png, raw, compressed));
+        return compressed;
+    }
+    
+    private static void compress(byte[] png, Path raw, Path compressed) {
+        long start = System.nanoTime();
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+            if (source == null) {
+                throw new IOException("Unreadable PNG");
+            }
+            writeJpeg(downscale(source), compressed);
+            if (!KEEP_RAW) {
+                Files.deleteIfExists(raw);
+            }
+            Metrics.timer("screenshot.compress").recordSince(start);
+        } catch (IOException | RuntimeException e) {
+            // Keep the report link working with the original image
+            System.out.println("Screenshot compression failed, keeping PNG: " + e);
+            try {
+                Files.copy(raw, compressed, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException copyFailure) {
+                System.out.println("Could not store screenshot " + compressed + ": " + copyFailure.getMessage());
+            }
+        }
+    }
+    
+    private static BufferedImage downscale(BufferedImage source) {
+        int width = Math.min(source.getWidth(), MAX_WIDTH);
+        int height = Math.max(1, (int) ((long) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+    
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam parameters = writer.getDefaultWriteParam();
+        parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        parameters.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), parameters);
+        } finally {
+            writer.dispose();
+        }
+    }
+    
+    /**
+     * Waits for queued compressions so no screenshot is lost at JVM exit.
+     */
+    private static void drain() {
+        EXECUTOR.shutdown();
+        try {
+            if (!EXECUTOR.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.out.println("Screenshot compression did not finish, raw PNGs were kept");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.cagip.samples.uat.plugins;
+
+import com.cagip.samples.uat.history.TimingHistory;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cucumber plugin collecting step and scenario latencies and errors for load tests.
+ * The load runner starts a new Cucumber runtime, and so a new plugin instance,
+ * for every iteration of every virtual user; samples are therefore kept in
+ * static state shared by all instances and read with {@link #report(Duration)}.
+ */
+public class LoadStatsPlugin implements ConcurrentEventListener {
+    
+    private static final Map<String, Samples> STEPS = new ConcurrentHashMap<>();
+    private static final Map<String, Samples> SCENARIOS = new ConcurrentHashMap<>();
+    
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+    }
+    
+    private void onTestStepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep step) {
+            record(STEPS, step.getPattern(), event.getResult().getDuration(), event.getResult().getStatus());
+        }
+    }
+    
+    private void onTestCaseFinished(TestCaseFinished event) {
+        record(SCENARIOS, event.getTestCase().getName(), event.getResult().getDuration(), event.getResult().getStatus());
+    }
+    
+    private static void record(Map<String, Samples> section, String key, Duration duration, Status status) {
+        section.computeIfAbsent(key, name -> new Samples()).add(duration.toNanos() / 1_000, status == Status.FAILED);
+    }
+    
+    /**
+     * Summarizes everything recorded so far: throughput, error rate and latency
+     * percentiles per scenario and per step pattern.
+     * 
+     * @param elapsed Duration of the load phase, used for throughput
+     * @return Report, ready to be serialized to JSON
+     */
+    public static Map<String, Object> report(Duration elapsed) {
+        long scenarios = SCENARIOS.values().stream().mapToLong(Samples::count).sum();
+        long failures = SCENARIOS.values().stream().mapToLong(Samples::errors).sum();
+        double seconds = Math.max(1, elapsed.toMillis()) / 1000.0;
+        
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("elapsedMs", elapsed.toMillis());
+        totals.put("scenarios", scenarios);
+        totals.put("failedScenarios", failures);
+        totals.put("errorRate", rate(failures, scenarios));
+        totals.put("scenariosPerSecond", round(scenarios / seconds));
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totals", totals);
+        report.put("scenarios", section(SCENARIOS, seconds));
+        report.put("steps", section(STEPS, seconds));
+        return report;
+    }
+    
+    private static Map<String, Object> section(Map<String, Samples> section, double seconds) {
+        Map<String, Object> entries = new TreeMap<>();
+        section.forEach((key, samples) -> {
+            long[] values = samples.toArray();
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("count", values.length);
+            statistics.put("errors", samples.errors());
+            statistics.put("errorRate", rate(samples.errors(), values.length));
+            statistics.put("perSecond", round(values.length / seconds));
+            statistics.put("p50Ms", toMillis(TimingHistory.percentile(values, 50)));
+            statistics.put("p95Ms", toMillis(TimingHistory.percentile(values, 95)));
+            statistics.put("p99Ms", toMillis(TimingHistory.percentile(values, 99)));
+            statistics.put("maxMs", toMillis(Arrays.stream(values).max().orElse(0)));
+            entries.put(key, statistics);
+        });
+        return entries;
+    }
+    
+    private static double rate(long errors, long count) {
+        return count == 0 ? 0.0 : Math.round(10000.0 * errors / count) / 10000.0;
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+    
+    private static double toMillis(long micros) {
+        return Math.round(micros / 100.0) / 10.0;
+    }
+    
+    /**
+     * Growable array of samples with an error count.
+     */
+    private static final class Samples {
+        
+        private long[] values = new long[64];
+        private int size;
+        private long errors;
+        
+        synchronized void add(long value, boolean error) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            if (error) {
+                errors++;
+            }
+        }
+        
+        synchronized long count() {
+            return size;
+        }
+        
+        synchronized long errors() {
+            return errors;
+        }
+        
+        synchronized long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
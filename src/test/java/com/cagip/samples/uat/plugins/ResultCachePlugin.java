@@ -0,0 +1,31 @@
+package com.cagip.samples.uat.plugins;
+
+import com.cagip.samples.uat.history.ResultCache;
+import com.cagip.samples.uat.history.ScenarioKey;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+
+/**
+ * Cucumber plugin keeping the {@link ResultCache} up to date: passed scenarios
+ * are cached, failed ones removed, and the cache is saved at the end of the run.
+ * Does nothing unless {@code result.cache.enabled=true}.
+ */
+public class ResultCachePlugin implements ConcurrentEventListener {
+    
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!ResultCache.ENABLED) {
+            return;
+        }
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> ResultCache.get().save());
+    }
+    
+    private void onTestCaseFinished(TestCaseFinished event) {
+        String key = ScenarioKey.of(event.getTestCase().getUri(), event.getTestCase().getLocation().getLine());
+        ResultCache.get().record(key, event.getResult().getStatus() == Status.PASSED);
+    }
+}
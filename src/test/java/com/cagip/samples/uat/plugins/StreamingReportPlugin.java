@@ -0,0 +1,248 @@
+package com.cagip.samples.uat.plugins;
+
+import com.cagip.samples.uat.reports.StreamReportRenderer;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EmbedEvent;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.WriteEvent;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cucumber plugin writing the run to disk as it happens, one JSON event per line
+ * ({@code events.ndjson}), instead of keeping it in memory until the end like the
+ * {@code html} and {@code json} plugins. Attachments are written to
+ * {@code attachments/} and referenced by path; links attached as
+ * {@code text/uri-list} (such as failure screenshots) are kept as links.
+ * <p>
+ * Events go through a queue of {@code report.stream.queue.size} entries (default
+ * 1024) drained by one writer thread; scenario threads wait when it is full, so
+ * memory stays bounded whatever the suite size. The file is flushed whenever the
+ * queue runs empty, so a killed run keeps everything up to its last moments.
+ * At the end of the run {@link StreamReportRenderer} turns the stream into
+ * {@code cucumber.html}; it can also be run by hand on the stream of a crashed run.
+ * Register as {@code com.cagip.samples.uat.plugins.StreamingReportPlugin:target/cucumber-reports}.
+ */
+public class StreamingReportPlugin implements ConcurrentEventListener {
+    
+    private static final Map<String, Object> END = Map.of();
+    
+    private final Path outputDir;
+    private final Path attachmentsDir;
+    private final BlockingQueue<Map<String, Object>> queue = new ArrayBlockingQueue<>(
+        Math.max(1, Integer.getInteger("report.stream.queue.size", 1024))
+    );
+    private final AtomicInteger attachmentCounter = new AtomicInteger();
+    private volatile Thread writerThread;
+    
+    public StreamingReportPlugin() {
+        this("target/cucumber-reports");
+    }
+    
+    public StreamingReportPlugin(String outputDir) {
+        this.outputDir = Path.of(outputDir);
+        this.attachmentsDir = this.outputDir.resolve("attachments");
+    }
+    
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, this::onTestRunStarted);
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(EmbedEvent.class, this::onEmbed);
+        publisher.registerHandlerFor(WriteEvent.class, this::onWrite);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onTestRunFinished);
+    }
+    
+    private void onTestRunStarted(TestRunStarted event) {
+        Path stream = outputDir.resolve(StreamReportRenderer.STREAM_FILE);
+        Writer writer;
+        try {
+            Files.createDirectories(attachmentsDir);
+            writer = Files.newBufferedWriter(stream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.out.println("Could not open report stream " + stream + ": " + e.getMessage());
+            return;
+        }
+        writerThread = Thread.ofPlatform().name("report-stream-writer").daemon().start(() -> drain(writer));
+        
+        Map<String, Object> line = event("testRunStarted");
+        line.put("timestamp", event.getInstant().toString());
+        put(line);
+    }
+    
+    private void onTestCaseStarted(TestCaseStarted event) {
+        TestCase testCase = event.getTestCase();
+        Map<String, Object> line = event("testCaseStarted");
+        line.put("testCase", testCase.getId().toString());
+        line.put("uri", testCase.getUri().toString());
+        line.put("line", testCase.getLocation().getLine());
+        line.put("name", testCase.getName());
+        line.put("thread", Thread.currentThread().getName());
+        line.put("timestamp", event.getInstant().toString());
+        put(line);
+    }
+    
+    private void onTestStepFinished(TestStepFinished event) {
+        Map<String, Object> line = event("testStepFinished");
+        line.put("testCase", event.getTestCase().getId().toString());
+        if (event.getTestStep() instanceof PickleStepTestStep step) {
+            line.put("step", step.getStep().getKeyword() + step.getStep().getText());
+            line.put("stepLine", step.getStep().getLine());
+        } else if (event.getTestStep() instanceof HookTestStep hook) {
+            line.put("hook", hook.getHookType().name().toLowerCase() + " " + hook.getCodeLocation());
+        }
+        putResult(line, event.getResult());
+        put(line);
+    }
+    
+    private void onEmbed(EmbedEvent event) {
+        Map<String, Object> line = event("attachment");
+        line.put("testCase", event.getTestCase().getId().toString());
+        line.put("mediaType", event.getMediaType());
+        line.put("name", event.getName());
+        if ("text/uri-list".equals(event.getMediaType())) {
+            line.put("url", new String(event.getData(), StandardCharsets.UTF_8).trim());
+        } else {
+            // Written on the scenario thread so the queue never holds attachment bytes
+            Path file = attachmentsDir.resolve(attachmentCounter.incrementAndGet() + extension(event.getMediaType()));
+            try {
+                Files.write(file, event.getData());
+                line.put("path", outputDir.relativize(file).toString().replace('\\', '/'));
+            } catch (IOException e) {
+                line.put("error", "Could not write attachment: " + e.getMessage());
+            }
+        }
+        put(line);
+    }
+    
+    private void onWrite(WriteEvent event) {
+        Map<String, Object> line = event("log");
+        line.put("testCase", event.getTestCase().getId().toString());
+        line.put("text", event.getText());
+        put(line);
+    }
+    
+    private void onTestCaseFinished(TestCaseFinished event) {
+        Map<String, Object> line = event("testCaseFinished");
+        line.put("testCase", event.getTestCase().getId().toString());
+        line.put("uri", event.getTestCase().getUri().toString());
+        line.put("line", event.getTestCase().getLocation().getLine());
+        putResult(line, event.getResult());
+        put(line);
+    }
+    
+    private void onTestRunFinished(TestRunFinished event) {
+        if (writerThread == null) {
+            return;
+        }
+        Map<String, Object> line = event("testRunFinished");
+        line.put("timestamp", event.getInstant().toString());
+        putResult(line, event.getResult());
+        put(line);
+        put(END);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        
+        Path html = outputDir.resolve("cucumber.html");
+        try {
+            StreamReportRenderer.render(outputDir.resolve(StreamReportRenderer.STREAM_FILE), html);
+        } catch (IOException e) {
+            System.out.println("Could not render " + html + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Writes queued events until the end marker, flushing whenever the queue is empty.
+     */
+    private void drain(Writer writer) {
+        Json json = new Json();
+        try (writer) {
+            while (true) {
+                Map<String, Object> line = queue.take();
+                if (line == END) {
+                    return;
+                }
+                StringBuilder out = new StringBuilder();
+                json.newOutput(out).setPrettyPrint(false).write(line);
+                writer.write(out.append('\n').toString());
+                if (queue.isEmpty()) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Report stream stopped: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Unblock scenario threads if writing failed
+            queue.clear();
+        }
+    }
+    
+    private void put(Map<String, Object> line) {
+        if (writerThread == null || !writerThread.isAlive()) {
+            return;
+        }
+        try {
+            queue.put(line);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static Map<String, Object> event(String type) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", type);
+        return line;
+    }
+    
+    private static void putResult(Map<String, Object> line, Result result) {
+        line.put("status", result.getStatus().name().toLowerCase());
+        line.put("durationNanos", result.getDuration().toNanos());
+        if (result.getError() != null) {
+            StringWriter trace = new StringWriter();
+            result.getError().printStackTrace(new PrintWriter(trace));
+            line.put("error", trace.toString());
+        }
+    }
+    
+    private static String extension(String mediaType) {
+        String[] parts = mediaType.split("[/;+]");
+        String subtype = parts.length > 1 ? parts[1].trim() : "bin";
+        switch (subtype) {
+            case "jpeg":
+                return ".jpg";
+            case "plain":
+                return ".txt";
+            default:
+                return subtype.matches("[a-z0-9.-]+") ? "." + subtype : ".bin";
+        }
+    }
+}
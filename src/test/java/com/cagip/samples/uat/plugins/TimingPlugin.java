@@ -0,0 +1,186 @@
+package com.cagip.samples.uat.plugins;
+
+import com.cagip.samples.uat.history.ScenarioKey;
+import com.cagip.samples.uat.history.TimingHistory;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cucumber plugin recording step, hook and scenario durations.
+ * Samples of the current run are merged into the {@link TimingHistory}, so
+ * percentiles cover previous runs and all parallel workers. At the end of the
+ * run it writes, in the directory given as plugin argument:
+ * <ul>
+ *     <li>{@code timings-summary.json}: count, p50, p95, p99 and max per step pattern,
+ *     hook and scenario, plus the load balance of this run,</li>
+ *     <li>{@code slowest-steps.txt}: the step patterns and hooks with the highest p95.</li>
+ * </ul>
+ * Register as {@code com.cagip.samples.uat.plugins.TimingPlugin:target/cucumber-reports}.
+ */
+public class TimingPlugin implements ConcurrentEventListener {
+    
+    private static final int SLOWEST_LIMIT = 20;
+    
+    private final Path outputDir;
+    private final Map<String, Map<String, Samples>> samples = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> busyNanosByThread = new ConcurrentHashMap<>();
+    private volatile Instant runStarted = Instant.now();
+    
+    public TimingPlugin() {
+        this("target/cucumber-reports");
+    }
+    
+    public TimingPlugin(String outputDir) {
+        this.outputDir = Path.of(outputDir);
+    }
+    
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> runStarted = event.getInstant());
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onTestRunFinished);
+    }
+    
+    private void onTestStepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep step) {
+            record(TimingHistory.STEPS, step.getPattern(), event.getResult().getDuration());
+        } else if (event.getTestStep() instanceof HookTestStep hook) {
+            record(TimingHistory.HOOKS, hook.getHookType() + " " + hook.getCodeLocation(), event.getResult().getDuration());
+        }
+    }
+    
+    private void onTestCaseFinished(TestCaseFinished event) {
+        Duration duration = event.getResult().getDuration();
+        record(TimingHistory.SCENARIOS, ScenarioKey.of(event.getTestCase().getUri(), event.getTestCase().getLocation().getLine()), duration);
+        // Concurrent events are published on the worker thread that ran the scenario
+        busyNanosByThread.computeIfAbsent(Thread.currentThread().getName(), name -> new LongAdder()).add(duration.toNanos());
+    }
+    
+    private void record(String section, String key, Duration duration) {
+        samples.computeIfAbsent(section, name -> new ConcurrentHashMap<>())
+            .computeIfAbsent(key, name -> new Samples())
+            .add(duration.toNanos() / 1_000);
+    }
+    
+    private void onTestRunFinished(TestRunFinished event) {
+        TimingHistory history = TimingHistory.load();
+        samples.forEach((section, bySection) ->
+            bySection.forEach((key, values) -> history.append(section, key, values.toArray())));
+        history.save();
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("loadBalance", loadBalance(Duration.between(runStarted, event.getInstant())));
+        for (String section : List.of(TimingHistory.STEPS, TimingHistory.HOOKS, TimingHistory.SCENARIOS)) {
+            Map<String, Object> entries = new LinkedHashMap<>();
+            history.samples(section).forEach((key, values) -> entries.put(key, statistics(values)));
+            summary.put(section, entries);
+        }
+        
+        try {
+            Files.createDirectories(outputDir);
+            try (Writer writer = Files.newBufferedWriter(outputDir.resolve("timings-summary.json"))) {
+                writer.write(new Json().toJson(summary));
+            }
+            Files.write(outputDir.resolve("slowest-steps.txt"), slowestSteps(history));
+        } catch (IOException e) {
+            System.out.println("Could not write timing reports to " + outputDir + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Compares the busiest worker with the ideal split of the work.
+     * Efficiency is the share of worker time spent running scenarios.
+     * 
+     * @param wallTime Wall-clock duration of the run
+     * @return Load balance figures
+     */
+    private Map<String, Object> loadBalance(Duration wallTime) {
+        long totalBusy = busyNanosByThread.values().stream().mapToLong(LongAdder::sum).sum();
+        long busiest = busyNanosByThread.values().stream().mapToLong(LongAdder::sum).max().orElse(0);
+        int workers = Math.max(1, busyNanosByThread.size());
+        Map<String, Object> balance = new LinkedHashMap<>();
+        balance.put("workers", workers);
+        balance.put("wallTimeMs", wallTime.toMillis());
+        balance.put("scenarioTimeMs", totalBusy / 1_000_000);
+        balance.put("idealMakespanMs", totalBusy / workers / 1_000_000);
+        balance.put("busiestWorkerMs", busiest / 1_000_000);
+        balance.put("efficiency", wallTime.isZero() ? 0.0
+            : Math.round(1000.0 * totalBusy / (workers * (double) wallTime.toNanos())) / 1000.0);
+        return balance;
+    }
+    
+    private static Map<String, Object> statistics(long[] values) {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("count", values.length);
+        statistics.put("p50Ms", toMillis(TimingHistory.percentile(values, 50)));
+        statistics.put("p95Ms", toMillis(TimingHistory.percentile(values, 95)));
+        statistics.put("p99Ms", toMillis(TimingHistory.percentile(values, 99)));
+        statistics.put("maxMs", toMillis(Arrays.stream(values).max().orElse(0)));
+        return statistics;
+    }
+    
+    private static List<String> slowestSteps(TimingHistory history) {
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>();
+        history.samples(TimingHistory.STEPS).forEach((key, values) -> entries.add(Map.entry("step " + key, values)));
+        history.samples(TimingHistory.HOOKS).forEach((key, values) -> entries.add(Map.entry("hook " + key, values)));
+        entries.sort(Comparator.comparingLong((Map.Entry<String, long[]> entry) ->
+            TimingHistory.percentile(entry.getValue(), 95)).reversed());
+        
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%10s %10s %10s %6s  %s", "p50 ms", "p95 ms", "p99 ms", "count", "step / hook"));
+        for (Map.Entry<String, long[]> entry : entries.subList(0, Math.min(SLOWEST_LIMIT, entries.size()))) {
+            long[] values = entry.getValue();
+            lines.add(String.format("%10.1f %10.1f %10.1f %6d  %s",
+                toMillis(TimingHistory.percentile(values, 50)), toMillis(TimingHistory.percentile(values, 95)),
+                toMillis(TimingHistory.percentile(values, 99)), values.length, entry.getKey()));
+        }
+        return lines;
+    }
+    
+    private static double toMillis(long micros) {
+        return Math.round(micros / 100.0) / 10.0;
+    }
+    
+    /**
+     * Growable array of samples; appends are cheap and contention is per key.
+     */
+    private static final class Samples {
+        
+        private long[] values = new long[8];
+        private int size;
+        
+        synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        synchronized long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
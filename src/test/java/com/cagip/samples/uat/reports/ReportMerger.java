@@ -0,0 +1,131 @@
+package com.cagip.samples.uat.reports;
+
+import com.cagip.samples.uat.history.ScenarioDurations;
+import com.cagip.samples.uat.history.TimingHistory;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Merges the report event streams of several shards into one report.
+ * <p>
+ * Usage: {@code ReportMerger <output-dir> <events.ndjson | directory>...}; directories
+ * are searched for {@code events.ndjson} files. The streams are appended line by
+ * line to {@code events.ndjson} in the output directory, with relative attachment
+ * paths and links (such as failure screenshots) rewritten relative to it, and {@link StreamReportRenderer} turns the result into
+ * a self-contained {@code index.html}. The merged scenario durations are appended
+ * to the {@link TimingHistory} so the next sharded run is balanced on the whole suite.
+ */
+public class ReportMerger {
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ReportMerger <output-dir> <events.ndjson | directory>...");
+            System.exit(2);
+        }
+        Path outputDir = Path.of(args[0]);
+        List<Path> streams = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            streams.addAll(streamFiles(Path.of(args[i])));
+        }
+        
+        Files.createDirectories(outputDir);
+        Path merged = outputDir.resolve(StreamReportRenderer.STREAM_FILE);
+        merge(streams, merged);
+        StreamReportRenderer.render(merged, outputDir.resolve("index.html"));
+        
+        TimingHistory history = TimingHistory.load();
+        ScenarioDurations.fromEventStream(merged)
+            .forEach((key, micros) -> history.append(TimingHistory.SCENARIOS, key, new long[] {micros}));
+        history.save();
+        System.out.println("Merged " + streams.size() + " report stream(s) into " + outputDir);
+    }
+    
+    private static List<Path> streamFiles(Path input) throws IOException {
+        if (!Files.isDirectory(input)) {
+            return List.of(input);
+        }
+        try (Stream<Path> files = Files.walk(input)) {
+            return files.filter(file -> file.getFileName().toString().equals(StreamReportRenderer.STREAM_FILE))
+                .sorted().toList();
+        }
+    }
+    
+    /**
+     * Appends several event streams into one. The run is only reported as finished
+     * when every shard's stream is; unreadable lines are dropped.
+     * 
+     * @param streams Event streams of the shards
+     * @param merged Stream to write
+     * @throws IOException if a stream cannot be read or the merged stream written
+     */
+    static void merge(List<Path> streams, Path merged) throws IOException {
+        Path mergedDir = merged.toAbsolutePath().getParent();
+        Json json = new Json();
+        int finished = 0;
+        try (Writer writer = Files.newBufferedWriter(merged, StandardCharsets.UTF_8)) {
+            for (Path stream : streams) {
+                Path streamDir = stream.toAbsolutePath().getParent();
+                try (BufferedReader reader = Files.newBufferedReader(stream, StandardCharsets.UTF_8)) {
+                    String text;
+                    while ((text = reader.readLine()) != null) {
+                        Map<String, Object> event;
+                        try {
+                            event = new LinkedHashMap<>(json.toType(text, Json.MAP_TYPE));
+                        } catch (JsonException e) {
+                            continue;
+                        }
+                        Object type = event.get("type");
+                        if ("testRunStarted".equals(type)) {
+                            continue;
+                        }
+                        if ("testRunFinished".equals(type)) {
+                            finished++;
+                            continue;
+                        }
+                        if ("attachment".equals(type) && (event.get("path") != null || event.get("url") != null)) {
+                            for (String field : List.of("path", "url")) {
+                                if (event.get(field) != null) {
+                                    event.put(field, relink(String.valueOf(event.get(field)), streamDir, mergedDir));
+                                }
+                            }
+                            text = compact(json, event);
+                        }
+                        writer.write(text + "\n");
+                    }
+                }
+            }
+            if (finished == streams.size()) {
+                writer.write(compact(json, Map.of("type", "testRunFinished")) + "\n");
+            }
+        }
+    }
+    
+    /**
+     * Makes a link relative to a shard's stream relative to the merged stream.
+     * Absolute URLs, such as screenshots stored outside the report directory, are kept.
+     */
+    private static String relink(String target, Path streamDir, Path mergedDir) {
+        if (target.contains(":")) {
+            return target;
+        }
+        return mergedDir.relativize(streamDir.resolve(target)).toString().replace('\\', '/');
+    }
+    
+    private static String compact(Json json, Map<String, Object> event) {
+        StringBuilder out = new StringBuilder();
+        json.newOutput(out).setPrettyPrint(false).write(event);
+        return out.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.cagip.samples.uat.reports;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link ReportMerger} keeps the attachments of each shard reachable
+ * from the merged report.
+ */
+class ReportMergerTest {
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void rewritesRelativeAttachmentLinksAndPaths() throws IOException {
+        Path shard = Files.createDirectories(dir.resolve("shard-reports/shard-1"));
+        Files.write(shard.resolve(StreamReportRenderer.STREAM_FILE), List.of(
+            "{\"type\":\"testCaseStarted\",\"testCase\":\"1\",\"uri\":\"classpath:features/login.feature\",\"line\":5,\"name\":\"Login\"}",
+            "{\"type\":\"attachment\",\"testCase\":\"1\",\"mediaType\":\"text/uri-list\",\"url\":\"screenshots/Login-1.jpg\"}",
+            "{\"type\":\"attachment\",\"testCase\":\"1\",\"mediaType\":\"text/uri-list\",\"url\":\"file:///tmp/Login-2.jpg\"}",
+            "{\"type\":\"attachment\",\"testCase\":\"1\",\"mediaType\":\"image/png\",\"path\":\"attachments/1.png\"}",
+            "{\"type\":\"testCaseFinished\",\"testCase\":\"1\",\"status\":\"failed\",\"durationNanos\":1000}",
+            "{\"type\":\"testRunFinished\"}"));
+        Path merged = Files.createDirectories(dir.resolve("target/merged-reports")).resolve(StreamReportRenderer.STREAM_FILE);
+        
+        ReportMerger.merge(List.of(shard.resolve(StreamReportRenderer.STREAM_FILE)), merged);
+        
+        Json json = new Json();
+        List<Map<String, Object>> attachments = Files.readAllLines(merged).stream()
+            .<Map<String, Object>>map(line -> json.toType(line, Json.MAP_TYPE))
+            .filter(event -> "attachment".equals(event.get("type")))
+            .toList();
+        assertEquals("../../shard-reports/shard-1/screenshots/Login-1.jpg", attachments.get(0).get("url"));
+        assertEquals("file:///tmp/Login-2.jpg", attachments.get(1).get("url"));
+        assertEquals("../../shard-reports/shard-1/attachments/1.png", attachments.get(2).get("path"));
+    }
+}
@@ -0,0 +1,202 @@
+package com.cagip.samples.uat.reports;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the HTML report from the event stream written by
+ * {@link com.cagip.samples.uat.plugins.StreamingReportPlugin}.
+ * <p>
+ * Usage: {@code StreamReportRenderer <events.ndjson> [<report.html>]}; the report
+ * defaults to {@code cucumber.html} next to the stream. The stream is read line by
+ * line and each scenario is written out as soon as it finishes, so memory only
+ * holds the scenarios that were running at the same time. Streams cut short by a
+ * killed run are rendered too: scenarios without a result are reported as
+ * {@code interrupted} and a truncated last line is ignored.
+ */
+public class StreamReportRenderer {
+    
+    public static final String STREAM_FILE = "events.ndjson";
+    
+    private static final String STYLE = "body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;width:100%}"
+        + "td,th{border:1px solid #ddd;padding:4px 8px;text-align:left}.passed{color:#2e7d32}.failed,.interrupted{color:#c62828}"
+        + ".skipped,.undefined,.pending{color:#f9a825}pre{white-space:pre-wrap;margin:0}";
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: StreamReportRenderer <events.ndjson> [<report.html>]");
+            System.exit(2);
+        }
+        Path stream = Path.of(args[0]);
+        Path html = args.length > 1 ? Path.of(args[1]) : stream.resolveSibling("cucumber.html");
+        render(stream, html);
+    }
+    
+    /**
+     * Renders an event stream as a self-contained HTML page: totals, then every
+     * scenario with its status, duration, failing step, attachments and log.
+     * 
+     * @param stream Event stream
+     * @param html HTML report to write
+     * @throws IOException if the stream cannot be read or the report written
+     */
+    public static void render(Path stream, Path html) throws IOException {
+        Path streamDir = stream.toAbsolutePath().getParent();
+        Path htmlDir = html.toAbsolutePath().getParent();
+        Files.createDirectories(htmlDir);
+        Path rowsFile = Files.createTempFile(htmlDir, "cucumber-rows", ".html");
+        
+        Map<String, Row> running = new LinkedHashMap<>();
+        Json json = new Json();
+        int passed = 0;
+        int notPassed = 0;
+        int unreadable = 0;
+        long totalNanos = 0;
+        boolean finished = false;
+        try (BufferedReader reader = Files.newBufferedReader(stream, StandardCharsets.UTF_8);
+             Writer rows = Files.newBufferedWriter(rowsFile, StandardCharsets.UTF_8)) {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                Map<String, Object> event;
+                try {
+                    event = json.toType(text, Json.MAP_TYPE);
+                } catch (JsonException e) {
+                    unreadable++;
+                    continue;
+                }
+                String type = String.valueOf(event.get("type"));
+                Object testCase = event.get("testCase");
+                switch (type) {
+                    case "testCaseStarted":
+                        running.put(String.valueOf(testCase), new Row(event));
+                        break;
+                    
+                    case "testStepFinished": {
+                        Row row = running.get(String.valueOf(testCase));
+                        String status = String.valueOf(event.get("status"));
+                        if (row != null && row.failure == null && !"passed".equals(status)) {
+                            Object step = event.containsKey("step") ? event.get("step") : event.get("hook");
+                            row.failure = step + ": " + event.getOrDefault("error", status);
+                        }
+                        break;
+                    }
+                    
+                    case "attachment": {
+                        Row row = running.get(String.valueOf(testCase));
+                        Object target = event.containsKey("path") ? event.get("path") : event.get("url");
+                        if (row != null && target != null) {
+                            row.attachments.append(row.attachments.length() == 0 ? "" : "<br>")
+                                .append("<a href=\"").append(escape(link(String.valueOf(target), streamDir, htmlDir)))
+                                .append("\">").append(escape(event.getOrDefault("name", target))).append("</a>");
+                        }
+                        break;
+                    }
+                    
+                    case "log": {
+                        Row row = running.get(String.valueOf(testCase));
+                        if (row != null) {
+                            row.logs.append(row.logs.length() == 0 ? "" : "\n").append(event.get("text"));
+                        }
+                        break;
+                    }
+                    
+                    case "testCaseFinished": {
+                        Row row = running.remove(String.valueOf(testCase));
+                        if (row == null) {
+                            break;
+                        }
+                        String status = String.valueOf(event.get("status"));
+                        long nanos = ((Number) event.getOrDefault("durationNanos", 0)).longValue();
+                        if ("passed".equals(status)) {
+                            passed++;
+                        } else {
+                            notPassed++;
+                        }
+                        totalNanos += nanos;
+                        row.write(rows, status, nanos);
+                        break;
+                    }
+                    
+                    case "testRunFinished":
+                        finished = true;
+                        break;
+                    
+                    default:
+                        break;
+                }
+            }
+            for (Row row : running.values()) {
+                notPassed++;
+                row.write(rows, "interrupted", 0);
+            }
+        }
+        
+        String title = finished ? "Cucumber report" : "Cucumber report (incomplete run)";
+        try (Writer writer = Files.newBufferedWriter(html, StandardCharsets.UTF_8)) {
+            writer.write("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>" + title + "</title><style>" + STYLE
+                + "</style></head><body><h1>" + title + "</h1><p>" + (passed + notPassed) + " scenarios: <span class=\"passed\">"
+                + passed + " passed</span>, <span class=\"failed\">" + notPassed + " not passed</span>, "
+                + String.format("%.1f s", totalNanos / 1e9) + " of scenario time"
+                + (unreadable > 0 ? ", " + unreadable + " unreadable event(s) skipped" : "") + "</p>"
+                + "<table><tr><th>Feature</th><th>Scenario</th><th>Status</th><th>Duration</th><th>Failure</th><th>Attachments</th><th>Log</th></tr>\n");
+            try (BufferedReader rows = Files.newBufferedReader(rowsFile, StandardCharsets.UTF_8)) {
+                rows.transferTo(writer);
+            }
+            writer.write("</table></body></html>");
+        } finally {
+            Files.deleteIfExists(rowsFile);
+        }
+        System.out.println("Rendered " + (passed + notPassed) + " scenario(s) from " + stream + " into " + html);
+    }
+    
+    /**
+     * Makes an attachment path, relative to the stream, relative to the report.
+     * Absolute URLs are kept as they are.
+     */
+    private static String link(String target, Path streamDir, Path htmlDir) {
+        if (target.contains(":")) {
+            return target;
+        }
+        return htmlDir.relativize(streamDir.resolve(target)).toString().replace('\\', '/');
+    }
+    
+    private static String escape(Object value) {
+        return String.valueOf(value).replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+    
+    /**
+     * A scenario that started but whose result has not been read yet.
+     */
+    private static final class Row {
+        
+        private final String uri;
+        private final Object line;
+        private final Object name;
+        private final StringBuilder attachments = new StringBuilder();
+        private final StringBuilder logs = new StringBuilder();
+        private String failure;
+        
+        private Row(Map<String, Object> started) {
+            String startedUri = String.valueOf(started.get("uri"));
+            this.uri = startedUri.substring(startedUri.lastIndexOf('/') + 1);
+            this.line = started.get("line");
+            this.name = started.get("name");
+        }
+        
+        private void write(Writer rows, String status, long nanos) throws IOException {
+            rows.write("<tr><td>" + escape(uri) + "</td><td>" + escape(name) + " (line " + line
+                + ")</td><td class=\"" + escape(status) + "\">" + escape(status) + "</td><td>"
+                + String.format("%.2f s", nanos / 1e9) + "</td><td><pre>" + escape(failure == null ? "" : failure)
+                + "</pre></td><td>" + attachments + "</td><td><pre>" + escape(logs) + "</pre></td></tr>\n");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.cagip.samples.uat.runner;
+
+import com.cagip.samples.uat.driver.DriverFactory;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Starts browsers in the background as soon as the test launcher opens,
+ * while features are still being discovered.
+ * Registered through META-INF/services and enabled with -Ddriver.prewarm.count=N.
+ */
+public class DriverWarmupListener implements LauncherSessionListener {
+    
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        int prewarmCount = Integer.getInteger("driver.prewarm.count", 0);
+        if (prewarmCount > 0) {
+            DriverFactory.prewarm(prewarmCount);
+        }
+    }
+    
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        DriverFactory.discardWarmSessions();
+    }
+}
@@ -0,0 +1,115 @@
+package com.cagip.samples.uat.runner;
+
+import com.cagip.samples.uat.history.ScenarioDurations;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reorders discovered scenarios longest-first, so a long scenario is not
+ * picked up last while the other workers sit idle.
+ * Every container's children are sorted by their expected total duration
+ * (see {@link ScenarioDurations}); scenarios without history count as the
+ * median scenario. Without any history the discovery order is kept.
+ * Registered through META-INF/services; it never excludes anything.
+ * <p>
+ * {@code scenario.order}: {@code auto} (default) orders by duration when
+ * {@code cucumber.execution.parallel.enabled=true}, {@code duration} always does,
+ * {@code discovery} keeps the discovery order.
+ */
+public class DurationOrderFilter implements PostDiscoveryFilter {
+    
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (descriptor.isRoot() && isEnabled()) {
+            ScenarioDurations durations = ScenarioDurations.load();
+            if (!durations.isEmpty()) {
+                order(descriptor, durations);
+            }
+        }
+        return FilterResult.included("order only");
+    }
+    
+    private static boolean isEnabled() {
+        String order = System.getProperty("scenario.order", "auto");
+        return "duration".equalsIgnoreCase(order)
+            || ("auto".equalsIgnoreCase(order) && Boolean.getBoolean("cucumber.execution.parallel.enabled"));
+    }
+    
+    private static void order(TestDescriptor root, ScenarioDurations durations) {
+        List<Long> discoveryOrder = new ArrayList<>();
+        collect(root, durations, discoveryOrder);
+        Map<TestDescriptor, Long> totals = new IdentityHashMap<>();
+        total(root, durations, totals);
+        if (discoveryOrder.isEmpty()) {
+            return;
+        }
+        sort(root, totals);
+        
+        List<Long> durationOrder = new ArrayList<>();
+        collect(root, durations, durationOrder);
+        int workers = Integer.getInteger("cucumber.execution.parallel.config.fixed.parallelism",
+            Runtime.getRuntime().availableProcessors());
+        long total = durationOrder.stream().mapToLong(Long::longValue).sum();
+        System.out.printf("Scenario order: longest first (%s), %d scenarios, predicted makespan %.1f s "
+                + "on %d workers (ideal %.1f s, discovery order %.1f s)%n",
+            durations.getOrigin(), durationOrder.size(),
+            ScenarioDurations.makespan(durationOrder, workers) / 1e6, workers,
+            total / (double) workers / 1e6, ScenarioDurations.makespan(discoveryOrder, workers) / 1e6);
+    }
+    
+    /**
+     * Computes the expected duration of every descriptor's subtree.
+     */
+    private static long total(TestDescriptor descriptor, ScenarioDurations durations, Map<TestDescriptor, Long> totals) {
+        long total = estimate(descriptor, durations);
+        for (TestDescriptor child : descriptor.getChildren()) {
+            total += total(child, durations, totals);
+        }
+        totals.put(descriptor, total);
+        return total;
+    }
+    
+    /**
+     * Sorts children longest-first, recursively. Cucumber runs children in
+     * insertion order, so they are removed and added back in the new order.
+     */
+    private static void sort(TestDescriptor descriptor, Map<TestDescriptor, Long> totals) {
+        List<TestDescriptor> children = new ArrayList<>(descriptor.getChildren());
+        children.sort(Comparator.comparing((TestDescriptor child) -> totals.getOrDefault(child, 0L)).reversed());
+        for (TestDescriptor child : children) {
+            descriptor.removeChild(child);
+        }
+        for (TestDescriptor child : children) {
+            descriptor.addChild(child);
+            sort(child, totals);
+        }
+    }
+    
+    /**
+     * Collects the expected durations of the scenarios, in tree order.
+     */
+    private static void collect(TestDescriptor descriptor, ScenarioDurations durations, List<Long> out) {
+        if (ScenarioSources.keyOf(descriptor) != null) {
+            out.add(estimate(descriptor, durations));
+        }
+        for (TestDescriptor child : descriptor.getChildren()) {
+            collect(child, durations, out);
+        }
+    }
+    
+    private static long estimate(TestDescriptor descriptor, ScenarioDurations durations) {
+        String key = ScenarioSources.keyOf(descriptor);
+        if (key == null) {
+            return 0;
+        }
+        long estimate = durations.estimate(key);
+        return estimate >= 0 ? estimate : durations.defaultEstimate();
+    }
+}
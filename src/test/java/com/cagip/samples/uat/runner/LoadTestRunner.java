@@ -0,0 +1,140 @@
+package com.cagip.samples.uat.runner;
+
+import com.cagip.samples.uat.driver.DriverFactory;
+import com.cagip.samples.uat.plugins.LoadStatsPlugin;
+import com.cagip.samples.uat.stub.LoginAppStub;
+import io.cucumber.core.cli.Main;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays Cucumber scenarios as concurrent virtual users to load the login application.
+ * Each virtual user is a virtual thread running the selected features in a loop,
+ * with the regular glue, until the duration elapses or it completed its iterations.
+ * Users share a pool of {@code driver.pool.size} reused browser sessions.
+ * <p>
+ * Settings (system properties):
+ * <ul>
+ *     <li>{@code load.users}: number of virtual users (default 5),</li>
+ *     <li>{@code load.duration.s}: load duration in seconds once all users are started (default 60),</li>
+ *     <li>{@code load.iterations}: iterations per user; when set, replaces the duration,</li>
+ *     <li>{@code load.rampup.s}: time over which users are started (default 0),</li>
+ *     <li>{@code load.features}: features or scenarios to replay (default {@code classpath:features},
+ *     lines allowed, e.g. {@code classpath:features/login.feature:9}),</li>
+ *     <li>{@code load.tags}: optional tag expression,</li>
+ *     <li>{@code load.report}: JSON report (default {@code target/load-reports/load-summary.json}).</li>
+ * </ul>
+ * Run with {@code mvn verify -Pload}.
+ */
+public class LoadTestRunner {
+    
+    private static final List<String> GLUE = List.of("com.cagip.samples.uat.steps", "com.cagip.samples.uat.hooks");
+    
+    public static void main(String[] args) throws IOException {
+        // Virtual users come and go; browsers must outlive them
+        System.setProperty("driver.reuse.enabled", System.getProperty("driver.reuse.enabled", "true"));
+        System.setProperty("cucumber.publish.quiet", "true");
+        
+        int users = Math.max(1, Integer.getInteger("load.users", 5));
+        int iterations = Integer.getInteger("load.iterations", 0);
+        long durationMillis = TimeUnit.SECONDS.toMillis(Long.getLong("load.duration.s", 60L));
+        long rampUpMillis = TimeUnit.SECONDS.toMillis(Long.getLong("load.rampup.s", 0L));
+        Path reportFile = Path.of(System.getProperty("load.report", "target/load-reports/load-summary.json"));
+        String[] cucumberArgs = cucumberArguments();
+        
+        LoginAppStub stub = LoginAppStub.startFromSystemProperties();
+        // Bounds the users holding a browser so parked sessions are always picked up
+        Semaphore browsers = new Semaphore(DriverFactory.getPoolSize(), true);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        
+        System.out.printf("Load test: %d user(s), %s, ramp-up %d s, %d browser(s)%n", users,
+            iterations > 0 ? iterations + " iteration(s) each" : durationMillis / 1000 + " s",
+            rampUpMillis / 1000, DriverFactory.getPoolSize());
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(rampUpMillis + durationMillis);
+        List<Future<?>> virtualUsers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                int userNumber = user + 1;
+                long startDelay = rampUpMillis * user / users;
+                virtualUsers.add(executor.submit(() -> {
+                    Thread.sleep(startDelay);
+                    for (int i = 0; iterations > 0 ? i < iterations : System.nanoTime() < deadline; i++) {
+                        browsers.acquire();
+                        try {
+                            byte status = Main.run(cucumberArgs, LoadTestRunner.class.getClassLoader());
+                            (status == 0 ? completed : failed).incrementAndGet();
+                        } catch (RuntimeException e) {
+                            // Count the iteration and keep the user running
+                            failed.incrementAndGet();
+                            System.out.println("Virtual user " + userNumber + " iteration failed: " + e);
+                        } finally {
+                            DriverFactory.parkDriver();
+                            browsers.release();
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        for (int user = 0; user < virtualUsers.size(); user++) {
+            try {
+                virtualUsers.get(user).get();
+            } catch (ExecutionException e) {
+                System.out.println("Virtual user " + (user + 1) + " stopped: " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        DriverFactory.discardWarmSessions();
+        if (stub != null) {
+            stub.stop();
+        }
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", users);
+        report.put("iterations", completed.get() + failed.get());
+        report.put("failedIterations", failed.get());
+        report.putAll(LoadStatsPlugin.report(elapsed));
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(reportFile)) {
+            writer.write(new Json().toJson(report));
+        }
+        System.out.println("Load test finished: " + report.get("totals") + ", report written to " + reportFile);
+    }
+    
+    private static String[] cucumberArguments() {
+        List<String> arguments = new ArrayList<>();
+        for (String glue : GLUE) {
+            arguments.add("--glue");
+            arguments.add(glue);
+        }
+        arguments.addAll(List.of("--plugin", LoadStatsPlugin.class.getName(), "--no-summary", "--monochrome"));
+        String tags = System.getProperty("load.tags", "");
+        if (!tags.isBlank()) {
+            arguments.add("--tags");
+            arguments.add(tags);
+        }
+        arguments.addAll(List.of(System.getProperty("load.features", "classpath:features").split(",")));
+        return arguments.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,62 @@
+package com.cagip.samples.uat.runner;
+
+import com.cagip.samples.uat.driver.DriverFactory;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.ServerSocket;
+
+/**
+ * Starts an in-process Selenium standalone server when {@code remote.browser=local},
+ * then points {@code remote.browser} at it, so the remote execution path can be
+ * tried without an external grid. The server drives the browsers installed on
+ * this machine and has {@code driver.pool.size} slots. The driver binary is
+ * resolved beforehand like for local browsers; with {@code driver.resolution.offline=true}
+ * the server's own Selenium Manager is turned off, so nothing is downloaded.
+ * Needs the {@code local-grid} Maven profile, which adds selenium-grid to the
+ * test classpath. Registered through META-INF/services, ahead of the listeners
+ * that may start browsers.
+ */
+public class LocalGridListener implements LauncherSessionListener {
+    
+    private static final String GRID_MAIN = "org.openqa.selenium.grid.Main";
+    
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        if (!"local".equalsIgnoreCase(System.getProperty("remote.browser", ""))) {
+            return;
+        }
+        
+        String browser = System.getProperty("browser", "chrome");
+        if (!"http".equalsIgnoreCase(browser)) {
+            DriverFactory.resolveDriverBinary(browser);
+        }
+        boolean offline = Boolean.getBoolean("driver.resolution.offline");
+        
+        int port = freePort();
+        String maxSessions = String.valueOf(Integer.getInteger("driver.pool.size", Runtime.getRuntime().availableProcessors()));
+        try {
+            Class.forName(GRID_MAIN).getMethod("main", String[].class).invoke(null, (Object) new String[] {
+                "standalone", "--port", String.valueOf(port), "--max-sessions", maxSessions,
+                "--override-max-sessions", "true", "--selenium-manager", String.valueOf(!offline)
+            });
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("remote.browser=local needs the local-grid Maven profile", e);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not start the local Selenium server", e);
+        }
+        System.setProperty("remote.browser", "http://localhost:" + port);
+        System.out.println("Local Selenium server started on port " + port);
+    }
+    
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.cagip.samples.uat.runner;
+
+import com.cagip.samples.uat.history.ResultCache;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+/**
+ * Leaves out scenarios whose last run passed with the same fingerprint
+ * (see {@link ResultCache}). Failed, changed and new scenarios run.
+ * Registered through META-INF/services and enabled with {@code result.cache.enabled=true}.
+ */
+public class ResultCacheFilter implements PostDiscoveryFilter {
+    
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        String key = ResultCache.ENABLED ? ScenarioSources.keyOf(descriptor) : null;
+        if (key != null && ResultCache.get().shouldSkip(key)) {
+            return FilterResult.excluded("passed with unchanged inputs");
+        }
+        return FilterResult.included("not cached");
+    }
+}
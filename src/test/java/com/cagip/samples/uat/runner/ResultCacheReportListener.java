@@ -0,0 +1,41 @@
+package com.cagip.samples.uat.runner;
+
+import com.cagip.samples.uat.history.ResultCache;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Reports the {@link ResultCache} hit rate when the launcher session closes,
+ * including when every scenario was skipped and Cucumber never ran.
+ * Writes {@code result-cache.json} to {@code target/cucumber-reports}.
+ * Registered through META-INF/services; active with {@code result.cache.enabled=true}.
+ */
+public class ResultCacheReportListener implements LauncherSessionListener {
+    
+    private static final Path REPORT = Path.of("target/cucumber-reports/result-cache.json");
+    
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        if (!ResultCache.ENABLED) {
+            return;
+        }
+        Map<String, Object> summary = ResultCache.get().summary();
+        System.out.println("Result cache: " + summary.get("skipped") + " of " + summary.get("discovered")
+            + " scenarios skipped (hit rate " + summary.get("hitRate") + ")");
+        try {
+            Files.createDirectories(REPORT.getParent());
+            try (Writer writer = Files.newBufferedWriter(REPORT)) {
+                writer.write(new Json().toJson(summary));
+            }
+        } catch (IOException e) {
+            System.out.println("Could not write result cache report " + REPORT + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cagip.samples.uat.runner;
+
+import com.cagip.samples.uat.history.ScenarioKey;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClasspathResourceSource;
+import org.junit.platform.engine.support.descriptor.FilePosition;
+import org.junit.platform.engine.support.descriptor.FileSource;
+
+import java.util.Optional;
+
+/**
+ * Maps Cucumber test descriptors to {@link ScenarioKey scenario keys}.
+ */
+final class ScenarioSources {
+    
+    private ScenarioSources() {
+    }
+    
+    /**
+     * Gets the scenario key of a test descriptor.
+     * 
+     * @param descriptor Test descriptor
+     * @return Scenario key, or null if the descriptor is not a Cucumber scenario or example row
+     */
+    static String keyOf(TestDescriptor descriptor) {
+        if (!descriptor.isTest()) {
+            return null;
+        }
+        TestSource source = descriptor.getSource().orElse(null);
+        if (source instanceof FileSource file) {
+            return key(file.getFile().getPath(), file.getPosition());
+        }
+        if (source instanceof ClasspathResourceSource resource) {
+            return key(resource.getClasspathResourceName(), resource.getPosition());
+        }
+        return null;
+    }
+    
+    private static String key(String path, Optional<FilePosition> position) {
+        return position.map(line -> ScenarioKey.of(path, line.getLine())).orElse(null);
+    }
+}
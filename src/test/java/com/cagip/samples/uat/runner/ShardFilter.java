@@ -0,0 +1,99 @@
+package com.cagip.samples.uat.runner;
+
+import com.cagip.samples.uat.history.ScenarioDurations;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Runs only this CI node's share of the scenarios.
+ * Enabled with {@code shard.count} greater than 1; {@code shard.index} is the
+ * 1-based index of this node (GitLab's {@code CI_NODE_INDEX}).
+ * <p>
+ * Scenarios are spread by expected duration (see {@link ScenarioDurations}):
+ * longest first, each to the shard with the least work so far, ties broken by
+ * scenario key and shard index. Without history every scenario weighs the same,
+ * which splits by count. The assignment is deterministic as long as every node
+ * reads the same history. Registered through META-INF/services.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+    
+    private static final int SHARD_COUNT = Math.max(1, Integer.getInteger("shard.count", 1));
+    private static final int SHARD_INDEX = Integer.getInteger("shard.index", 1);
+    
+    private Set<String> assigned = Set.of();
+    
+    public ShardFilter() {
+        if (SHARD_INDEX < 1 || SHARD_INDEX > SHARD_COUNT) {
+            throw new IllegalArgumentException("shard.index must be between 1 and " + SHARD_COUNT + ": " + SHARD_INDEX);
+        }
+    }
+    
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (SHARD_COUNT == 1) {
+            return FilterResult.included("sharding disabled");
+        }
+        // The root is visited before its descendants
+        if (descriptor.isRoot()) {
+            assigned = assign(descriptor);
+        }
+        String key = ScenarioSources.keyOf(descriptor);
+        if (key == null || assigned.contains(key)) {
+            return FilterResult.included("shard " + SHARD_INDEX + "/" + SHARD_COUNT);
+        }
+        return FilterResult.excluded("assigned to another shard");
+    }
+    
+    private static Set<String> assign(TestDescriptor root) {
+        ScenarioDurations durations = ScenarioDurations.load();
+        Map<String, Long> estimates = new TreeMap<>();
+        collect(root, durations, estimates);
+        if (estimates.isEmpty()) {
+            return Set.of();
+        }
+        
+        List<Map.Entry<String, Long>> scenarios = new ArrayList<>(estimates.entrySet());
+        scenarios.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        long[] loads = new long[SHARD_COUNT];
+        Set<String> mine = new HashSet<>();
+        for (Map.Entry<String, Long> scenario : scenarios) {
+            int shard = 0;
+            for (int candidate = 1; candidate < SHARD_COUNT; candidate++) {
+                if (loads[candidate] < loads[shard]) {
+                    shard = candidate;
+                }
+            }
+            loads[shard] += scenario.getValue();
+            if (shard == SHARD_INDEX - 1) {
+                mine.add(scenario.getKey());
+            }
+        }
+        
+        long largest = Arrays.stream(loads).max().orElse(0);
+        System.out.printf("Shard %d/%d: %d of %d scenarios, expected %.1f s (largest shard %.1f s, %s)%n",
+            SHARD_INDEX, SHARD_COUNT, mine.size(), scenarios.size(), loads[SHARD_INDEX - 1] / 1e6, largest / 1e6,
+            durations.isEmpty() ? "no history, split by count" : durations.getOrigin());
+        return mine;
+    }
+    
+    private static void collect(TestDescriptor descriptor, ScenarioDurations durations, Map<String, Long> estimates) {
+        String key = ScenarioSources.keyOf(descriptor);
+        if (key != null) {
+            long estimate = durations.estimate(key);
+            // At least 1 so scenarios without any history still spread by count
+            estimates.put(key, Math.max(1, estimate >= 0 ? estimate : durations.defaultEstimate()));
+        }
+        for (TestDescriptor child : descriptor.getChildren()) {
+            collect(child, durations, estimates);
+        }
+    }
+}
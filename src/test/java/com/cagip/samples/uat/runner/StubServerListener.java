@@ -0,0 +1,32 @@
+package com.cagip.samples.uat.runner;
+
+import com.cagip.samples.uat.stub.LoginAppStub;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Starts the {@link LoginAppStub} for the duration of the test launcher session.
+ * Registered through META-INF/services.
+ * <p>
+ * See {@link LoginAppStub#startFromSystemProperties()} for when the stub starts.
+ * Other settings: {@code stub.server.port} (default 3000, the port of the default
+ * login URL; 0 picks a free port), {@code stub.server.latency.ms},
+ * {@code stub.server.jitter.ms} and {@code stub.server.seed}.
+ */
+public class StubServerListener implements LauncherSessionListener {
+    
+    private LoginAppStub stub;
+    
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        stub = LoginAppStub.startFromSystemProperties();
+    }
+    
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        if (stub != null) {
+            stub.stop();
+            stub = null;
+        }
+    }
+}
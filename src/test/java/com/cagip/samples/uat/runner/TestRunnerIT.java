@@ -10,11 +10,14 @@ import static io.cucumber.junit.platform.engine.Constants.*;
 /**
  * Cucumber Test Runner using JUnit Platform Suite.
  * This class runs all feature files in the features directory.
+ * Parallel execution is configured through the cucumber.execution.parallel.*
+ * system properties (see the "parallel" and "driver.pool.size" properties in pom.xml)
+ * so it can be toggled from the command line.
  */
 @Suite
 @IncludeEngines("cucumber")
 @SelectClasspathResource("features")
-@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, html:target/cucumber-reports/cucumber.html, json:target/cucumber-reports/cucumber.json")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, com.cagip.samples.uat.plugins.StreamingReportPlugin:target/cucumber-reports, com.cagip.samples.uat.plugins.TimingPlugin:target/cucumber-reports, com.cagip.samples.uat.plugins.ResultCachePlugin")
 @ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "com.cagip.samples.uat.steps,com.cagip.samples.uat.hooks")
 @ConfigurationParameter(key = FEATURES_PROPERTY_NAME, value = "src/test/resources/features")
 @ConfigurationParameter(key = PLUGIN_PUBLISH_QUIET_PROPERTY_NAME, value = "true")
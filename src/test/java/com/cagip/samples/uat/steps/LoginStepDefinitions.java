@@ -2,82 +2,122 @@ package com.cagip.samples.uat.steps;
 
 import com.cagip.samples.uat.driver.DriverFactory;
 import com.cagip.samples.uat.pages.LoggedInSuccessfullyPage;
+import com.cagip.samples.uat.pages.LoginOutcome;
 import com.cagip.samples.uat.pages.LoginPage;
+import com.cagip.samples.uat.pages.PageRegistry;
+import com.cagip.samples.uat.session.SessionStateCache;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
-import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Step definitions for Login feature scenarios.
+ * Pages are created on first use and the browser only starts when a step
+ * sends its first WebDriver command.
+ * Passwords of the users named in steps come from {@code users.properties} on the
+ * test classpath, or from {@code users.<name>.password} system properties.
  */
 public class LoginStepDefinitions {
     
-    private WebDriver driver;
-    private LoginPage loginPage;
-    private LoggedInSuccessfullyPage loggedInPage;
+    private static final Properties USERS = loadUsers();
+    
+    private final PageRegistry pages = new PageRegistry(DriverFactory.getLazyDriver());
     
-    public LoginStepDefinitions() {
-        this.driver = DriverFactory.getDriver();
-        this.loginPage = new LoginPage(driver);
-        this.loggedInPage = new LoggedInSuccessfullyPage(driver);
+    private LoginPage loginPage() {
+        return pages.get(LoginPage.class);
+    }
+    
+    private LoggedInSuccessfullyPage loggedInPage() {
+        return pages.get(LoggedInSuccessfullyPage.class);
     }
     
     @Given("I am on the login page")
     public void iAmOnTheLoginPage() {
-        loginPage.navigateToLoginPage();
+        loginPage().navigateToLoginPage();
+    }
+    
+    @Given("I am logged in as {string}")
+    public void iAmLoggedInAs(String username) {
+        SessionStateCache.logIn(DriverFactory.getLazyDriver(), username, passwordOf(username));
     }
     
     @When("I enter username {string}")
     public void iEnterUsername(String username) {
-        loginPage.enterUsername(username);
+        loginPage().enterUsername(username);
     }
     
     @When("I enter password {string}")
     public void iEnterPassword(String password) {
-        loginPage.enterPassword(password);
+        loginPage().enterPassword(password);
     }
     
     @When("I click the submit button")
     public void iClickTheSubmitButton() {
-        loginPage.clickSubmit();
+        loginPage().clickSubmit();
     }
     
     @When("I login with username {string} and password {string}")
     public void iLoginWithUsernameAndPassword(String username, String password) {
-        loginPage.login(username, password);
+        loginPage().login(username, password);
     }
     
     @Then("I should be redirected to the success page")
     public void iShouldBeRedirectedToTheSuccessPage() {
-        assertTrue(loggedInPage.urlContains("logged-in-successfully"), 
+        assertEquals(LoginOutcome.SUCCESS, loginPage().waitForLoginOutcome(),
+                "Login did not reach the success page");
+        assertTrue(loggedInPage().urlContains("logged-in-successfully"), 
                 "URL does not contain 'logged-in-successfully'");
     }
     
     @Then("the page should contain {string}")
     public void thePageShouldContain(String expectedText) {
-        assertTrue(loggedInPage.pageContainsText(expectedText), 
+        assertTrue(loggedInPage().pageContainsText(expectedText), 
                 "Page does not contain expected text: " + expectedText);
     }
     
     @Then("the logout button should be displayed")
     public void theLogoutButtonShouldBeDisplayed() {
-        assertTrue(loggedInPage.isLogoutButtonDisplayed(), 
+        assertTrue(loggedInPage().isLogoutButtonDisplayed(), 
                 "Logout button is not displayed");
     }
     
     @Then("an error message should be displayed")
     public void anErrorMessageShouldBeDisplayed() {
-        assertTrue(loginPage.isErrorMessageDisplayed(), 
+        assertEquals(LoginOutcome.ERROR, loginPage().waitForLoginOutcome(),
                 "Error message is not displayed");
     }
     
     @Then("the error message should say {string}")
     public void theErrorMessageShouldSay(String expectedErrorMessage) {
-        String actualErrorMessage = loginPage.getErrorMessageText();
+        String actualErrorMessage = loginPage().getErrorMessageText();
         assertEquals(expectedErrorMessage, actualErrorMessage, 
                 "Error message does not match");
     }
+    
+    private static String passwordOf(String username) {
+        String password = System.getProperty("users." + username + ".password", USERS.getProperty(username));
+        if (password == null) {
+            throw new IllegalArgumentException("No password configured for user " + username);
+        }
+        return password;
+    }
+    
+    private static Properties loadUsers() {
+        Properties users = new Properties();
+        try (InputStream in = LoginStepDefinitions.class.getResourceAsStream("/users.properties")) {
+            if (in != null) {
+                users.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read users.properties", e);
+        }
+        return users;
+    }
 }
\ No newline at end of file
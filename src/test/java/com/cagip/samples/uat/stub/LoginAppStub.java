@@ -0,0 +1,298 @@
+package com.cagip.samples.uat.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-JVM stand-in for the practice login application.
+ * Serves the login page and the "logged in successfully" page with the ids and
+ * classes the page objects rely on, validates credentials server-side and
+ * delays every response by a configurable latency and jitter, drawn from a
+ * seeded random generator so runs are reproducible.
+ * A successful login sets a session cookie, which the "logged in" page requires;
+ * without it the page redirects to the login page.
+ * Requests are handled on virtual threads.
+ */
+public class LoginAppStub {
+    
+    public static final String LOGIN_PATH = "/practice-test-login/";
+    public static final String SUCCESS_PATH = "/logged-in-successfully/";
+    
+    static final String VALID_USERNAME = "student";
+    static final String VALID_PASSWORD = "Password123";
+    static final String SESSION_COOKIE = "stub_session";
+    
+    private static final String LOGIN_PAGE =
+        "<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Test Login | Practice Test Automation</title>"
+        + "<style>#error{display:none;color:#fff;background:#c0392b;padding:8px}#error.show{display:block}</style>"
+        + "</head><body><section id=\"login\"><h2>Test login</h2>"
+        + "<form method=\"post\" action=\"" + LOGIN_PATH + "\">"
+        + "<div id=\"form\">"
+        + "<label for=\"username\">Username</label><input type=\"text\" name=\"username\" id=\"username\">"
+        + "<label for=\"password\">Password</label><input type=\"password\" name=\"password\" id=\"password\">"
+        + "<button type=\"submit\" class=\"btn\" id=\"submit\">Submit</button>"
+        + "</div></form>"
+        + "<div id=\"error\"%s>%s</div>"
+        + "</section></body></html>";
+    
+    private static final String SUCCESS_PAGE =
+        "<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Logged In Successfully | Practice Test Automation</title>"
+        + "</head><body><article><h1 class=\"post-title\">Logged In Successfully</h1>"
+        + "<div class=\"content\"><p><strong>Congratulations student. You successfully logged in!</strong></p>"
+        + "<a class=\"wp-block-button__link\" href=\"" + LOGIN_PATH + "\">Log out</a></div>"
+        + "</article></body></html>";
+    
+    private static volatile String configuredLoginPageUrl;
+    
+    private final HttpServer server;
+    private final String host;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final Random random;
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    
+    private LoginAppStub(HttpServer server, String host, long latencyMillis, long jitterMillis, long seed) {
+        this.server = server;
+        this.host = host;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.random = new Random(seed);
+        server.setExecutor(executor);
+        server.createContext(LOGIN_PATH, this::handleLogin);
+        server.createContext(SUCCESS_PATH, this::handleSuccess);
+        server.createContext("/", exchange -> respond(exchange, 404, "Not found"));
+    }
+    
+    /**
+     * Starts the stub on the given port.
+     * 
+     * @param port Port to listen on, 0 for any free port
+     * @param latencyMillis Base delay added to every response
+     * @param jitterMillis Maximum random deviation from the base delay
+     * @param seed Seed of the jitter generator
+     * @return Running stub
+     * @throws IOException if the port cannot be bound
+     */
+    public static LoginAppStub start(int port, long latencyMillis, long jitterMillis, long seed) throws IOException {
+        return start("localhost", port, latencyMillis, jitterMillis, seed);
+    }
+    
+    /**
+     * Starts the stub on the given host name and port. The host is both the
+     * address listened on and the one used in {@link #getLoginPageUrl()}, so it
+     * must be an address of this machine that the browser can reach.
+     * 
+     * @param host Host name or address to listen on
+     * @param port Port to listen on, 0 for any free port
+     * @param latencyMillis Base delay added to every response
+     * @param jitterMillis Maximum random deviation from the base delay
+     * @param seed Seed of the jitter generator
+     * @return Running stub
+     * @throws IOException if the address cannot be bound
+     */
+    public static LoginAppStub start(String host, int port, long latencyMillis, long jitterMillis, long seed)
+            throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        LoginAppStub stub = new LoginAppStub(server, host, latencyMillis, jitterMillis, seed);
+        server.start();
+        return stub;
+    }
+    
+    /**
+     * Starts the stub as configured by the {@code stub.server.*} system properties
+     * and points {@code login.page.url} at it.
+     * {@code stub.server.enabled}: {@code auto} (default) starts the stub when no
+     * {@code login.page.url} is configured and the browser can reach it, {@code true}
+     * always starts it, {@code false} never does. Remote and Docker browsers run on
+     * another host and cannot reach {@code localhost}: in those modes {@code auto}
+     * only starts the stub when {@code stub.server.host} gives a reachable address.
+     * 
+     * @return Running stub, or null if disabled or the port is unavailable
+     */
+    public static LoginAppStub startFromSystemProperties() {
+        String enabled = System.getProperty("stub.server.enabled", "auto");
+        String loginPageUrl = System.getProperty("login.page.url", "");
+        if (configuredLoginPageUrl == null) {
+            configuredLoginPageUrl = loginPageUrl;
+        }
+        String host = System.getProperty("stub.server.host", "");
+        boolean auto = "auto".equalsIgnoreCase(enabled) && loginPageUrl.isBlank();
+        boolean start = "true".equalsIgnoreCase(enabled)
+            || (auto && (!host.isBlank() || browserRunsLocally()));
+        if (!start) {
+            if (auto) {
+                System.out.println("Login app stub not started: the browser runs on another host and cannot reach"
+                    + " localhost; set stub.server.host to a reachable address of this machine, or login.page.url");
+            }
+            return null;
+        }
+        
+        int port = Integer.getInteger("stub.server.port", 3000);
+        LoginAppStub stub;
+        try {
+            stub = start(host.isBlank() ? "localhost" : host, port,
+                Long.getLong("stub.server.latency.ms", 0L),
+                Long.getLong("stub.server.jitter.ms", 0L),
+                Long.getLong("stub.server.seed", 42L));
+        } catch (IOException e) {
+            System.out.println("Login app stub not started (port " + port + " unavailable): " + e.getMessage());
+            return null;
+        }
+        // Page objects read login.page.url once, when LoginPage is loaded after startup
+        System.setProperty("login.page.url", stub.getLoginPageUrl());
+        System.out.println("Login app stub serving " + stub.getLoginPageUrl());
+        return stub;
+    }
+    
+    /**
+     * Checks whether the browser runs on this machine: a local driver, or a
+     * grid on a loopback address such as the in-process one ({@code remote.browser=local}).
+     */
+    private static boolean browserRunsLocally() {
+        if (Boolean.getBoolean("auto.provisioned.browser")) {
+            return false;
+        }
+        String remoteBrowser = System.getProperty("remote.browser", "");
+        if (remoteBrowser.isBlank() || "local".equalsIgnoreCase(remoteBrowser)) {
+            return true;
+        }
+        try {
+            String remoteHost = URI.create(remoteBrowser).getHost();
+            return remoteHost != null && ("localhost".equalsIgnoreCase(remoteHost)
+                || remoteHost.startsWith("127.") || "[::1]".equals(remoteHost));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Gets the login page URL configured for the run, before
+     * {@link #startFromSystemProperties()} pointed {@code login.page.url} at the stub.
+     * 
+     * @return Configured login page URL, empty if none
+     */
+    public static String getConfiguredLoginPageUrl() {
+        String configured = configuredLoginPageUrl;
+        return configured != null ? configured : System.getProperty("login.page.url", "");
+    }
+    
+    /**
+     * Gets the URL of the login page.
+     * 
+     * @return Login page URL
+     */
+    public String getLoginPageUrl() {
+        return "http://" + host + ":" + server.getAddress().getPort() + LOGIN_PATH;
+    }
+    
+    public void stop() {
+        server.stop(0);
+        executor.close();
+    }
+    
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        simulateLatency();
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            respond(exchange, 200, String.format(LOGIN_PAGE, "", ""));
+            return;
+        }
+        
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String error = null;
+        if (!VALID_USERNAME.equals(form.get("username"))) {
+            error = "Your username is invalid!";
+        } else if (!VALID_PASSWORD.equals(form.get("password"))) {
+            error = "Your password is invalid!";
+        }
+        
+        if (error == null) {
+            String session = UUID.randomUUID().toString();
+            sessions.add(session);
+            exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=/; HttpOnly");
+            exchange.getResponseHeaders().add("Location", SUCCESS_PATH);
+            exchange.sendResponseHeaders(303, -1);
+            exchange.close();
+        } else {
+            respond(exchange, 200, String.format(LOGIN_PAGE, " class=\"show\"", error));
+        }
+    }
+    
+    private void handleSuccess(HttpExchange exchange) throws IOException {
+        simulateLatency();
+        String session = sessionOf(exchange);
+        if (session == null || !sessions.contains(session)) {
+            exchange.getResponseHeaders().add("Location", LOGIN_PATH);
+            exchange.sendResponseHeaders(303, -1);
+            exchange.close();
+            return;
+        }
+        respond(exchange, 200, SUCCESS_PAGE);
+    }
+    
+    private static String sessionOf(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && SESSION_COOKIE.equals(pair[0])) {
+                    return pair[1];
+                }
+            }
+        }
+        return null;
+    }
+    
+    private void simulateLatency() {
+        long delay = latencyMillis;
+        if (jitterMillis > 0) {
+            synchronized (random) {
+                delay += random.nextLong(-jitterMillis, jitterMillis + 1);
+            }
+        }
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+    
+    private static void respond(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+Feature: Authenticated Session
+  As a user who has already logged in
+  I want my session to be restored
+  So that I can use the application without logging in again
+
+  Scenario: Logged-in user lands on the success page
+    Given I am logged in as "student"
+    Then the page should contain "Congratulations"
+    And the logout button should be displayed
+
+  Scenario: Logged-in user can reach the success page again
+    Given I am logged in as "student"
+    Then I should be redirected to the success page
+    And the page should contain "successfully logged in"